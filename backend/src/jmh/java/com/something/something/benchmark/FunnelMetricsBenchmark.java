@@ -0,0 +1,92 @@
+package com.something.something.benchmark;
+
+import com.something.something.model.Phase;
+import com.something.something.repository.PhaseFunnelCount;
+import com.something.something.repository.SessionDailyRollupRepository;
+import com.something.something.repository.UserSessionRepository;
+import com.something.something.service.SessionFunnelCounter;
+import com.something.something.service.SessionMetricsService;
+import com.something.something.service.WriteBehindSessionStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * GET /api/admin/metrics without the database: SessionMetricsService.getMetrics
+ * plus serialization, and the reconcile pass that folds the grouped funnel
+ * rows (from mocked repositories) back into the counters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FunnelMetricsBenchmark {
+
+    private JsonMapper jsonMapper;
+    private SessionFunnelCounter counter;
+    private SessionMetricsService metricsService;
+
+    private record Row(Phase currentPhase, Phase quitPhase, long sessions, long reachedFork, long exited)
+            implements PhaseFunnelCount {
+
+        public Phase getCurrentPhase() { return currentPhase; }
+        public Phase getQuitPhase() { return quitPhase; }
+        public Long getSessions() { return sessions; }
+        public Long getReachedFork() { return reachedFork; }
+        public Long getExited() { return exited; }
+    }
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+
+        // Every (current phase, quit phase) group a real table can produce.
+        List<PhaseFunnelCount> liveRows = new ArrayList<>();
+        List<PhaseFunnelCount> archivedRows = new ArrayList<>();
+        for (Phase phase : Phase.values()) {
+            if (phase == Phase.EXITED) {
+                for (Phase quit : Phase.values()) {
+                    boolean forked = quit.ordinal() >= Phase.FORK.ordinal();
+                    liveRows.add(new Row(phase, quit, 10_000, forked ? 10_000 : 0, 10_000));
+                    archivedRows.add(new Row(phase, quit, 90_000, forked ? 90_000 : 0, 90_000));
+                }
+            } else {
+                boolean forked = phase.ordinal() >= Phase.FORK.ordinal();
+                liveRows.add(new Row(phase, null, 50_000, forked ? 50_000 : 0, 0));
+            }
+        }
+
+        UserSessionRepository sessions = mock(UserSessionRepository.class);
+        when(sessions.summarizeFunnel()).thenAnswer(invocation -> new ArrayList<>(liveRows));
+        SessionDailyRollupRepository rollups = mock(SessionDailyRollupRepository.class);
+        when(rollups.summarizeFunnel()).thenAnswer(invocation -> new ArrayList<>(archivedRows));
+
+        counter = new SessionFunnelCounter();
+        metricsService = new SessionMetricsService(sessions, counter, rollups,
+                new DefaultListableBeanFactory().getBeanProvider(WriteBehindSessionStore.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        metricsService.loadCounters();
+    }
+
+    @Benchmark
+    public byte[] getMetrics() {
+        return jsonMapper.writeValueAsBytes(metricsService.getMetrics());
+    }
+
+    @Benchmark
+    public long reconcile() {
+        metricsService.reconcile();
+        return counter.changeCount();
+    }
+}
@@ -0,0 +1,80 @@
+package com.something.something.benchmark;
+
+import com.something.something.model.PublishedEntrySummary;
+import com.something.something.repository.SoupEntryRepository;
+import com.something.something.service.SoupEntryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * GET /api/entries without the database: SoupEntryService.getPublishedSummaries
+ * over a mocked repository, then serialization of the list it returns. The
+ * listing is cached by the service, so the cold case runs against a fresh
+ * service each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublishedListingBenchmark {
+
+    @Param({"10", "200"})
+    public int publishedEntries;
+
+    private JsonMapper jsonMapper;
+    private SoupEntryRepository repository;
+    private SoupEntryService service;
+
+    @State(Scope.Thread)
+    public static class ColdService {
+
+        SoupEntryService service;
+
+        @Setup(Level.Invocation)
+        public void setUp(PublishedListingBenchmark benchmark) {
+            service = benchmark.newService();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+
+        List<PublishedEntrySummary> summaries = new ArrayList<>();
+        for (int i = 0; i < publishedEntries; i++) {
+            summaries.add(new PublishedEntrySummary("entry-" + i, "Entry " + i,
+                    "A short description of entry " + i, i % 2 == 0, Instant.now()));
+        }
+        repository = mock(SoupEntryRepository.class);
+        when(repository.findPublishedSummaries()).thenAnswer(invocation -> new ArrayList<>(summaries));
+
+        service = newService();
+        service.getPublishedSummaries();
+    }
+
+    SoupEntryService newService() {
+        return new SoupEntryService(repository, jsonMapper, new SimpleMeterRegistry(), null, null, null,
+                64L * 1024 * 1024);
+    }
+
+    @Benchmark
+    public byte[] listPublished() {
+        return jsonMapper.writeValueAsBytes(service.getPublishedSummaries());
+    }
+
+    @Benchmark
+    public byte[] listPublishedCold(ColdService cold) {
+        return jsonMapper.writeValueAsBytes(cold.service.getPublishedSummaries());
+    }
+}
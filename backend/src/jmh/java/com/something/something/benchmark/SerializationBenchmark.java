@@ -0,0 +1,86 @@
+package com.something.something.benchmark;
+
+import com.something.something.model.Phase;
+import com.something.something.model.SoupEntry;
+import com.something.something.model.SoupStatus;
+import com.something.something.model.UserSession;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the two entities the API returns most: a fully
+ * authored SoupEntry (all phase bodies filled) and a UserSession.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private JsonMapper jsonMapper;
+    private UserSession session;
+
+    @State(Scope.Benchmark)
+    public static class EntryState {
+
+        @Param({"1024", "16384"})
+        public int bodySize;
+
+        SoupEntry entry;
+
+        @Setup
+        public void setUp() {
+            entry = SoupEntry.create("Lost updates", "lost-updates", "Two transfers, one balance");
+            entry.setExampleDescription(text(bodySize / 4));
+            entry.setExampleStarterCode(text(bodySize));
+            entry.setExampleTestsCode(text(bodySize));
+            entry.setExampleSimulationCode(text(bodySize));
+            entry.setExplanationAssumption(text(bodySize / 4));
+            entry.setExplanationInvariant(text(bodySize / 4));
+            entry.setExplanationMachineBehavior(text(bodySize / 4));
+            entry.setArticleContent(text(bodySize * 2));
+            entry.setStatus(SoupStatus.PUBLISHED);
+            entry.setPublishedAt(Instant.now());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+
+        session = new UserSession(UUID.randomUUID());
+        Instant now = Instant.now();
+        session.setHazardAcceptedAt(now);
+        session.setCodeSubmittedAt(now);
+        session.setFailureRevealedAt(now);
+        session.setForkReachedAt(now);
+        session.setCurrentPhase(Phase.EXITED);
+        session.setQuitPhase(Phase.READINGS);
+        session.setExitedAt(now);
+    }
+
+    @Benchmark
+    public byte[] soupEntry(EntryState state) {
+        return jsonMapper.writeValueAsBytes(state.entry);
+    }
+
+    @Benchmark
+    public byte[] userSession() {
+        return jsonMapper.writeValueAsBytes(session);
+    }
+
+    private static String text(int length) {
+        String line = "function transfer(from, to, amount) { from.balance -= amount; }\n";
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(line);
+        }
+        return sb.substring(0, length);
+    }
+}
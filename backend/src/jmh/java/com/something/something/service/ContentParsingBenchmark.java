@@ -0,0 +1,63 @@
+package com.something.something.service;
+
+import com.something.something.model.Reading;
+import com.something.something.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front-matter parsing of a single file, and a full load of each content
+ * directory (parse plus serialization of every payload). Lives in the
+ * service package to reach the package-private parsers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentParsingBenchmark {
+
+    private String readingSource;
+    private String taskSource;
+    private ContentLibrary<Reading> readings;
+    private ContentLibrary<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        readingSource = new ClassPathResource("readings/01-modeling-reality.md")
+                .getContentAsString(StandardCharsets.UTF_8);
+        taskSource = new ClassPathResource("tasks/bank-account.md")
+                .getContentAsString(StandardCharsets.UTF_8);
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        readings = new ContentLibrary<>("readings", ReadingService::parse, null, jsonMapper);
+        tasks = new ContentLibrary<>("tasks", TaskService::parse, null, jsonMapper);
+    }
+
+    @Benchmark
+    public Reading parseReading() {
+        return ReadingService.parse("01-modeling-reality", readingSource);
+    }
+
+    @Benchmark
+    public Task parseTask() {
+        return TaskService.parse("bank-account", taskSource);
+    }
+
+    @Benchmark
+    public int loadReadings() throws IOException {
+        readings.load(null);
+        return readings.getAll().size();
+    }
+
+    @Benchmark
+    public int loadTasks() throws IOException {
+        tasks.load(null);
+        return tasks.getAll().size();
+    }
+}
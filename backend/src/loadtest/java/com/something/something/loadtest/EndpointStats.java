@@ -0,0 +1,53 @@
+package com.something.something.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency samples and outcome counts for one endpoint. Samples are kept
+ * raw so the percentiles are exact; a few minutes of load is a few million
+ * longs at most.
+ */
+class EndpointStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private final Map<String, Long> statuses = new TreeMap<>();
+
+    synchronized void record(long nanos, String status, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        statuses.merge(status, 1L, Long::sum);
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, new TreeMap<>(statuses),
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    record Summary(long count, long errors, Map<String, Long> statuses,
+            long p50, long p90, long p99, long max) {
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+}
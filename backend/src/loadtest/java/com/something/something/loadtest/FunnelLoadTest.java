@@ -0,0 +1,289 @@
+package com.something.something.loadtest;
+
+import com.something.something.model.Phase;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives user journeys against a running backend and reports per-endpoint
+ * latency percentiles and error rates.
+ *
+ * <p>A journey creates a session, advances it phase by phase up to READINGS,
+ * fetches the reading list and one reading once FORK is reached, and — for
+ * {@code --exit-share} of journeys — exits at a random phase instead of
+ * finishing.
+ *
+ * <p>With {@code --rate > 0} journeys arrive at that many per second (open
+ * model); {@code --concurrency} caps how many are in flight and arrivals
+ * beyond the cap are counted as dropped. With {@code --rate=0} exactly
+ * {@code --concurrency} journeys loop back to back (closed model).
+ *
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:java -Dloadtest.args="--rate=50 --concurrency=200 --duration=60s"
+ * </pre>
+ */
+public class FunnelLoadTest {
+
+    private static final String CREATE = "POST /api/sessions";
+    private static final String ADVANCE = "POST /api/sessions/{id}/advance";
+    private static final String EXIT = "POST /api/sessions/{id}/exit";
+    private static final String READINGS = "GET /api/readings";
+    private static final String READING = "GET /api/readings/{id}";
+
+    private final URI baseUrl;
+    private final double rate;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final double exitShare;
+
+    private final HttpClient client;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong journeysCompleted = new AtomicLong();
+    private final AtomicLong journeysFailed = new AtomicLong();
+    private final AtomicLong arrivalsDropped = new AtomicLong();
+    private volatile boolean recording;
+
+    FunnelLoadTest(Map<String, String> options) {
+        this.baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:8080"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        this.duration = parseDuration(options.getOrDefault("duration", "60s"));
+        this.warmup = parseDuration(options.getOrDefault("warmup", "5s"));
+        this.exitShare = Double.parseDouble(options.getOrDefault("exit-share", "0.3"));
+        if (rate < 0 || concurrency < 1 || exitShare < 0 || exitShare > 1) {
+            throw new IllegalArgumentException("rate must be >= 0, concurrency >= 1, exit-share in [0, 1]");
+        }
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new FunnelLoadTest(options).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Target %s, %s, concurrency %d, warmup %ds, duration %ds, exit share %.0f%%%n",
+                baseUrl, rate > 0 ? rate + " journeys/s" : "closed loop", concurrency,
+                warmup.toSeconds(), duration.toSeconds(), exitShare * 100);
+
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+
+        try (ExecutorService journeys = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread.ofVirtual().start(() -> {
+                LockSupport.parkNanos(warmup.toNanos());
+                recording = true;
+            });
+            if (rate > 0) {
+                runOpen(journeys, start, end);
+            } else {
+                runClosed(journeys, end);
+            }
+        }
+        report(duration.toNanos() / 1e9);
+    }
+
+    private void runOpen(ExecutorService journeys, long start, long end) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        for (long next = start; next < end; next += interval) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                if (recording) {
+                    arrivalsDropped.incrementAndGet();
+                }
+                continue;
+            }
+            journeys.submit(() -> {
+                try {
+                    journey();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void runClosed(ExecutorService journeys, long end) {
+        for (int i = 0; i < concurrency; i++) {
+            journeys.submit(() -> {
+                while (System.nanoTime() < end) {
+                    journey();
+                }
+            });
+        }
+    }
+
+    private void journey() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Number of advances made before exiting; -1 means the journey finishes.
+        int exitAfter = random.nextDouble() < exitShare ? random.nextInt(Phase.READINGS.ordinal() + 1) : -1;
+        try {
+            JsonNode session = call(CREATE, post("/api/sessions"));
+            if (session == null) {
+                abandoned();
+                return;
+            }
+            String id = session.get("id").asString();
+            Phase phase = Phase.valueOf(session.get("currentPhase").asString());
+            for (int advances = 0; ; advances++) {
+                if (advances == exitAfter) {
+                    call(EXIT, post("/api/sessions/" + id + "/exit"));
+                    break;
+                }
+                if (phase == Phase.FORK) {
+                    fetchReadings(id);
+                }
+                if (phase == Phase.READINGS) {
+                    break;
+                }
+                JsonNode advanced = call(ADVANCE, post("/api/sessions/" + id + "/advance"));
+                if (advanced == null) {
+                    abandoned();
+                    return;
+                }
+                phase = Phase.valueOf(advanced.get("currentPhase").asString());
+            }
+            if (recording) {
+                journeysCompleted.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void abandoned() {
+        if (recording) {
+            journeysFailed.incrementAndGet();
+        }
+    }
+
+    private void fetchReadings(String sessionId) throws InterruptedException {
+        JsonNode readings = call(READINGS, get("/api/readings", sessionId));
+        if (readings == null || readings.isEmpty()) {
+            return;
+        }
+        JsonNode pick = readings.get(ThreadLocalRandom.current().nextInt(readings.size()));
+        call(READING, get("/api/readings/" + pick.get("id").asString(), sessionId));
+    }
+
+    /**
+     * Sends one request and records it under {@code endpoint}. Returns the
+     * parsed body on a 2xx, otherwise null (and the journey is abandoned).
+     */
+    private JsonNode call(String endpoint, HttpRequest request) throws InterruptedException {
+        long started = System.nanoTime();
+        String status;
+        JsonNode body = null;
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = String.valueOf(response.statusCode());
+            if (response.statusCode() / 100 == 2) {
+                body = jsonMapper.readTree(response.body());
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            status = e.getClass().getSimpleName();
+        }
+        long elapsed = System.nanoTime() - started;
+        if (recording) {
+            stats.computeIfAbsent(endpoint, k -> new EndpointStats()).record(elapsed, status, body == null);
+        }
+        return body;
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private HttpRequest get(String path, String sessionId) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("X-Session-Id", sessionId)
+                .GET()
+                .build();
+    }
+
+    private void report(double seconds) {
+        System.out.println();
+        System.out.printf("%-32s %9s %8s %7s %9s %9s %9s %9s  %s%n",
+                "endpoint", "requests", "req/s", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms", "statuses");
+        long total = 0;
+        long totalErrors = 0;
+        for (String endpoint : List.of(CREATE, ADVANCE, READINGS, READING, EXIT)) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (endpointStats == null) {
+                continue;
+            }
+            EndpointStats.Summary s = endpointStats.summarize();
+            total += s.count();
+            totalErrors += s.errors();
+            System.out.printf("%-32s %9d %8.1f %6.2f%% %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    endpoint, s.count(), s.count() / seconds, s.errorRate() * 100,
+                    millis(s.p50()), millis(s.p90()), millis(s.p99()), millis(s.max()), s.statuses());
+        }
+        System.out.println();
+        System.out.printf("total %d requests (%.1f req/s), %.2f%% errors%n",
+                total, total / seconds, total == 0 ? 0 : 100.0 * totalErrors / total);
+        System.out.printf("journeys: %d completed (%.1f/s), %d abandoned on error%n",
+                journeysCompleted.get(), journeysCompleted.get() / seconds, journeysFailed.get());
+        if (rate > 0) {
+            System.out.printf("arrivals dropped at the concurrency cap: %d%n", arrivalsDropped.get());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /** Parses "500ms", "30s", "2m" or a bare number of seconds. */
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
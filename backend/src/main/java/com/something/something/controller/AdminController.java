@@ -1,25 +1,54 @@
 package com.something.something.controller;
 
-import com.something.something.model.Phase;
-import com.something.something.model.UserSession;
-import com.something.something.repository.UserSessionRepository;
+import com.something.something.service.ContentDirectoryWatcher;
+import com.something.something.service.EntryCompressionService;
+import com.something.something.service.MetricsStreamService;
+import com.something.something.service.SessionAnalyticsService;
+import com.something.something.service.SessionExportService;
+import com.something.something.service.SessionMetricsService;
+import com.something.something.web.PreparedJson;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.*;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
-    private final UserSessionRepository repository;
+    private final SessionMetricsService metricsService;
+    private final ContentDirectoryWatcher contentWatcher;
+    private final SessionAnalyticsService analyticsService;
+    private final SessionExportService exportService;
+    private final EntryCompressionService compressionService;
+    private final MetricsStreamService metricsStream;
+    private final JsonMapper jsonMapper;
 
     @Value("${app.admin.password}")
     private String adminPassword;
 
-    public AdminController(UserSessionRepository repository) {
-        this.repository = repository;
+    public AdminController(SessionMetricsService metricsService, ContentDirectoryWatcher contentWatcher,
+            SessionAnalyticsService analyticsService, SessionExportService exportService,
+            EntryCompressionService compressionService, MetricsStreamService metricsStream,
+            JsonMapper jsonMapper) {
+        this.metricsService = metricsService;
+        this.contentWatcher = contentWatcher;
+        this.analyticsService = analyticsService;
+        this.exportService = exportService;
+        this.compressionService = compressionService;
+        this.metricsStream = metricsStream;
+        this.jsonMapper = jsonMapper;
     }
 
     @GetMapping("/metrics")
@@ -31,32 +60,144 @@ public class AdminController {
                     .body(Map.of("error", "Unauthorized"));
         }
 
-        List<UserSession> allSessions = repository.findAll();
-        long totalSessions = allSessions.size();
+        return ResponseEntity.ok(metricsService.getMetrics());
+    }
+
+    // Server-sent events: a "snapshot" of the metrics, then "delta" events
+    // with the values that changed. See MetricsStreamService.
+    @GetMapping("/metrics/stream")
+    public ResponseEntity<ResponseBodyEmitter> streamMetrics(
+            @RequestHeader(value = "X-Admin-Password", required = false) String password) throws IOException {
 
-        Map<String, Long> sessionsByPhase = new LinkedHashMap<>();
-        for (Phase phase : Phase.values()) {
-            sessionsByPhase.put(phase.name(), repository.countByCurrentPhase(phase));
+        if (!adminPassword.equals(password)) {
+            return emittedError(401, "Unauthorized");
         }
 
-        Map<String, Long> quitDistribution = new LinkedHashMap<>();
-        for (UserSession s : allSessions) {
-            if (s.getQuitPhase() != null) {
-                quitDistribution.merge(s.getQuitPhase().name(), 1L, Long::sum);
-            }
+        try {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .header("X-Accel-Buffering", "no")
+                    .body(metricsStream.subscribe());
+        } catch (IllegalStateException e) {
+            return emittedError(503, e.getMessage());
+        }
+    }
+
+    @GetMapping("/content")
+    public ResponseEntity<?> getContentStats(
+            @RequestHeader(value = "X-Admin-Password", required = false) String password) {
+
+        if (!adminPassword.equals(password)) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Unauthorized"));
+        }
+
+        return ResponseEntity.ok(contentWatcher.getStats());
+    }
+
+    @GetMapping("/entries/compression")
+    public ResponseEntity<?> getCompressionReport(
+            @RequestHeader(value = "X-Admin-Password", required = false) String password) {
+
+        if (!adminPassword.equals(password)) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Unauthorized"));
+        }
+
+        return ResponseEntity.ok(compressionService.report());
+    }
+
+    // Re-encodes stored entry bodies for the current compression setting.
+    @PostMapping("/entries/compression/backfill")
+    public ResponseEntity<?> backfillCompression(
+            @RequestHeader(value = "X-Admin-Password", required = false) String password) {
+
+        if (!adminPassword.equals(password)) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Unauthorized"));
+        }
+
+        return ResponseEntity.ok(compressionService.backfill());
+    }
+
+    // Window defaults to the seven days before 'to' (or now).
+    @GetMapping("/analytics/dwell")
+    public ResponseEntity<?> getDwellTimes(
+            @RequestHeader(value = "X-Admin-Password", required = false) String password,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to) {
+
+        if (!adminPassword.equals(password)) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "Unauthorized"));
+        }
+
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(7));
+        try {
+            return ResponseEntity.ok(analyticsService.dwellTimes(start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
+    }
 
-        long completedToFork = allSessions.stream()
-                .filter(s -> s.getForkReachedAt() != null)
-                .count();
+    @GetMapping("/sessions/export")
+    public ResponseEntity<StreamingResponseBody> exportSessions(
+            @RequestHeader(value = "X-Admin-Password", required = false) String password,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to) {
+
+        if (!adminPassword.equals(password)) {
+            return streamedError(401, "Unauthorized");
+        }
+
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+        // Checked here as well as in the service: once the body starts
+        // streaming the status line has already been sent.
+        if (!start.isBefore(end)) {
+            return streamedError(400, "'from' must be before 'to'");
+        }
 
-        Map<String, Object> metrics = new LinkedHashMap<>();
-        metrics.put("totalSessions", totalSessions);
-        metrics.put("sessionsByPhase", sessionsByPhase);
-        metrics.put("quitDistribution", quitDistribution);
-        metrics.put("completedToFork", completedToFork);
-        metrics.put("totalExited", repository.countExited());
+        boolean gzip = PreparedJson.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gz = new GZIPOutputStream(out, 64 * 1024)) {
+                    exportService.writeNdjson(start, end, gz);
+                }
+            } else {
+                exportService.writeNdjson(start, end, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("sessions.ndjson").build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // Spring only streams a ResponseEntity declared with a StreamingResponseBody
+    // body, so the export's error responses have to be streamed too.
+    private ResponseEntity<StreamingResponseBody> streamedError(int status, String message) {
+        byte[] json = jsonMapper.writeValueAsBytes(Map.of("error", message));
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(json));
+    }
 
-        return ResponseEntity.ok(metrics);
+    // Likewise for the metrics stream, which must be declared with an emitter body.
+    private ResponseEntity<ResponseBodyEmitter> emittedError(int status, String message) throws IOException {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        emitter.send(Map.of("error", message), MediaType.APPLICATION_JSON);
+        emitter.complete();
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(emitter);
     }
 }
@@ -1,11 +1,11 @@
 package com.something.something.controller;
 
-import com.something.something.model.SoupEntry;
+import com.something.something.model.PublishedEntrySummary;
 import com.something.something.service.SoupEntryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.*;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/entries")
@@ -18,26 +18,15 @@ public class PublicEntryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> listPublished() {
-        List<Map<String, Object>> summaries = new ArrayList<>();
-        for (SoupEntry entry : service.getPublishedEntries()) {
-            Map<String, Object> summary = new LinkedHashMap<>();
-            summary.put("slug", entry.getSlug());
-            summary.put("title", entry.getTitle());
-            summary.put("description", entry.getDescription());
-            summary.put("hasArticle", entry.getArticleContent() != null
-                    && !entry.getArticleContent().trim().isEmpty());
-            summary.put("publishedAt", entry.getPublishedAt());
-            summaries.add(summary);
-        }
-        return ResponseEntity.ok(summaries);
+    public ResponseEntity<List<PublishedEntrySummary>> listPublished() {
+        return ResponseEntity.ok(service.getPublishedSummaries());
     }
 
     @GetMapping("/{slug}")
-    public ResponseEntity<?> getBySlug(@PathVariable String slug) {
+    public ResponseEntity<?> getBySlug(@PathVariable String slug,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
         try {
-            SoupEntry entry = service.getPublishedBySlug(slug);
-            return ResponseEntity.ok(entry);
+            return service.getPublishedJson(slug).toResponse(acceptEncoding);
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.notFound().build();
         }
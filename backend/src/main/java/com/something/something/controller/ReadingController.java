@@ -1,14 +1,10 @@
 package com.something.something.controller;
 
-import com.something.something.model.Phase;
-import com.something.something.model.Reading;
-import com.something.something.model.UserSession;
 import com.something.something.service.ReadingService;
 import com.something.something.service.SessionService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -25,25 +21,28 @@ public class ReadingController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllReadings(@RequestHeader(value = "X-Session-Id", required = false) String sessionId) {
+    public ResponseEntity<?> getAllReadings(@RequestHeader(value = "X-Session-Id", required = false) String sessionId,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
         if (!isUnlocked(sessionId)) {
             return ResponseEntity.status(403)
                     .body(Map.of("error", "Readings are locked. You must reach the Fork phase first."));
         }
-        List<Reading> readings = readingService.getAllReadings();
-        return ResponseEntity.ok(readings);
+        return readingService.getAllReadingsJson("html".equals(format)).toResponse(acceptEncoding);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getReading(
             @PathVariable String id,
-            @RequestHeader(value = "X-Session-Id", required = false) String sessionId) {
+            @RequestHeader(value = "X-Session-Id", required = false) String sessionId,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
         if (!isUnlocked(sessionId)) {
             return ResponseEntity.status(403)
                     .body(Map.of("error", "Readings are locked."));
         }
-        return readingService.getReading(id)
-                .map(ResponseEntity::ok)
+        return readingService.getReadingJson(id, "html".equals(format))
+                .map(json -> json.toResponse(acceptEncoding))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -51,9 +50,7 @@ public class ReadingController {
         if (sessionId == null || sessionId.isBlank())
             return false;
         try {
-            UserSession session = sessionService.getSession(UUID.fromString(sessionId));
-            Phase phase = session.getCurrentPhase();
-            return phase == Phase.FORK || phase == Phase.READINGS || phase == Phase.EXITED;
+            return sessionService.isReadingsUnlocked(UUID.fromString(sessionId));
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,62 @@
+package com.something.something.controller;
+
+import com.something.something.model.SearchHit;
+import com.something.something.service.SearchService;
+import com.something.something.service.SessionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+    private final SessionService sessionService;
+
+    public SearchController(SearchService searchService, SessionService sessionService) {
+        this.searchService = searchService;
+        this.sessionService = sessionService;
+    }
+
+    // Readings only show up for sessions that have unlocked them, the same
+    // rule as /api/readings.
+    @GetMapping
+    public ResponseEntity<?> search(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "type", required = false) List<String> types,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestHeader(value = "X-Session-Id", required = false) String sessionId) {
+        try {
+            Set<SearchHit.Kind> kinds = EnumSet.noneOf(SearchHit.Kind.class);
+            if (types != null) {
+                types.stream().filter(type -> !type.isBlank()).map(SearchHit.Kind::of).forEach(kinds::add);
+            }
+            if (kinds.isEmpty()) {
+                kinds = EnumSet.allOf(SearchHit.Kind.class);
+            }
+            if (!isUnlocked(sessionId)) {
+                kinds.remove(SearchHit.Kind.READING);
+            }
+            return ResponseEntity.ok(searchService.search(query, kinds, offset, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private boolean isUnlocked(String sessionId) {
+        if (sessionId == null || sessionId.isBlank())
+            return false;
+        try {
+            return sessionService.isReadingsUnlocked(UUID.fromString(sessionId));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
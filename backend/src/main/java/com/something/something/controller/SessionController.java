@@ -2,6 +2,7 @@ package com.something.something.controller;
 
 import com.something.something.model.UserSession;
 import com.something.something.service.SessionService;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,9 +20,13 @@ public class SessionController {
     }
 
     @PostMapping
-    public ResponseEntity<UserSession> createSession() {
-        UserSession session = sessionService.createSession();
-        return ResponseEntity.ok(session);
+    public ResponseEntity<?> createSession() {
+        try {
+            UserSession session = sessionService.createSession();
+            return ResponseEntity.ok(session);
+        } catch (TransientDataAccessException e) {
+            return unavailable(e);
+        }
     }
 
     @GetMapping("/{id}")
@@ -43,6 +48,8 @@ public class SessionController {
             return ResponseEntity.notFound().build();
         } catch (IllegalStateException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (TransientDataAccessException e) {
+            return unavailable(e);
         }
     }
 
@@ -53,6 +60,13 @@ public class SessionController {
             return ResponseEntity.ok(session);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (TransientDataAccessException e) {
+            return unavailable(e);
         }
     }
+
+    // The write-behind store is full and the database is not taking writes.
+    private static ResponseEntity<?> unavailable(TransientDataAccessException e) {
+        return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+    }
 }
@@ -1,11 +1,15 @@
 package com.something.something.controller;
 
+import com.something.something.model.ContentField;
+import com.something.something.model.SoupStatus;
 import com.something.something.service.SoupEntryService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -36,6 +40,26 @@ public class SoupBowlController {
         return ResponseEntity.ok(service.getAllEntries());
     }
 
+    // Newest first, one page at a time: ?status=A,B filters, ?summary=true
+    // leaves out the content bodies, ?cursor= is the previous nextCursor.
+    @GetMapping("/entries/page")
+    public ResponseEntity<?> listEntryPage(@RequestHeader("X-Admin-Password") String password,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "status", required = false) List<SoupStatus> statuses,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @RequestParam(value = "summary", defaultValue = "false") boolean summary) {
+        if (!isAuthorized(password)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
+        }
+        try {
+            return ResponseEntity.ok(summary
+                    ? service.listEntrySummaries(cursor, statuses, limit)
+                    : service.listEntries(cursor, statuses, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/entries")
     public ResponseEntity<?> createEntry(@RequestHeader("X-Admin-Password") String password,
             @RequestBody Map<String, String> body) {
@@ -133,6 +157,75 @@ public class SoupBowlController {
         }
     }
 
+    // PATCH variants take only the changed properties (same names as the PUT
+    // bodies); properties left out keep their values, and only changed
+    // columns are written.
+
+    @PatchMapping("/entries/{id}/example")
+    public ResponseEntity<?> patchExample(@RequestHeader("X-Admin-Password") String password,
+            @PathVariable UUID id,
+            @RequestBody Map<String, String> body) {
+        return patchContent(password, id, SoupStatus.DRAFT_EXAMPLE, body);
+    }
+
+    @PatchMapping("/entries/{id}/explanation")
+    public ResponseEntity<?> patchExplanation(@RequestHeader("X-Admin-Password") String password,
+            @PathVariable UUID id,
+            @RequestBody Map<String, String> body) {
+        return patchContent(password, id, SoupStatus.DRAFT_EXPLANATION, body);
+    }
+
+    @PatchMapping("/entries/{id}/article")
+    public ResponseEntity<?> patchArticle(@RequestHeader("X-Admin-Password") String password,
+            @PathVariable UUID id,
+            @RequestBody Map<String, String> body) {
+        return patchContent(password, id, SoupStatus.DRAFT_ARTICLE, body);
+    }
+
+    private ResponseEntity<?> patchContent(String password, UUID id, SoupStatus phase, Map<String, String> body) {
+        if (!isAuthorized(password)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
+        }
+        try {
+            Map<ContentField, String> values = new EnumMap<>(ContentField.class);
+            body.forEach((property, value) -> values.put(ContentField.of(phase, property), value));
+            return ResponseEntity.ok(service.patchContent(id, values));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- Revision history ---
+
+    @GetMapping("/entries/{id}/revisions")
+    public ResponseEntity<?> listRevisions(@RequestHeader("X-Admin-Password") String password,
+            @PathVariable UUID id,
+            @RequestParam(value = "field", required = false) ContentField field) {
+        if (!isAuthorized(password)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
+        }
+        try {
+            return ResponseEntity.ok(service.getRevisions(id, field));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/entries/{id}/revisions/{field}/{revision}")
+    public ResponseEntity<?> getRevision(@RequestHeader("X-Admin-Password") String password,
+            @PathVariable UUID id,
+            @PathVariable ContentField field,
+            @PathVariable int revision) {
+        if (!isAuthorized(password)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
+        }
+        try {
+            return ResponseEntity.ok(service.getRevision(id, field, revision));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // --- Ceremony advancement ---
 
     @PostMapping("/entries/{id}/advance")
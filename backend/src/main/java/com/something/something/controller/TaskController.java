@@ -1,12 +1,9 @@
 package com.something.something.controller;
 
-import com.something.something.model.Task;
 import com.something.something.service.TaskService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
@@ -18,14 +15,18 @@ public class TaskController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<byte[]> getAllTasks(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        return taskService.getAllTasksJson("html".equals(format)).toResponse(acceptEncoding);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable String id) {
-        return taskService.getTask(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getTask(@PathVariable String id,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        return taskService.getTaskJson(id, "html".equals(format))
+                .map(json -> json.toResponse(acceptEncoding))
                 .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,83 @@
+package com.something.something.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stored form of a compressible text column: either the text itself, or
+ * {@link #MARKER} followed by the base64 of its raw-deflated UTF-8 bytes.
+ * The marker starts with a control character that markdown and source text
+ * do not contain, and text that does start with it is always compressed, so
+ * the two forms can never be confused.
+ */
+public final class CompressedText {
+
+    public static final String MARKER = "\u0001z1:";
+
+    private CompressedText() {
+    }
+
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(MARKER);
+    }
+
+    /**
+     * The stored form of {@code text}: compressed when it is at least
+     * {@code minLength} characters and compressing makes it shorter.
+     * A negative {@code minLength} disables compression.
+     */
+    public static String encode(String text, int minLength) {
+        if (text == null) {
+            return null;
+        }
+        boolean required = text.startsWith(MARKER);
+        if (!required && (minLength < 0 || text.length() < minLength)) {
+            return text;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 16);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        String compressed = MARKER + Base64.getEncoder().encodeToString(out.toByteArray());
+        return required || compressed.length() < text.length() ? compressed : text;
+    }
+
+    /** The text a stored value holds, whichever form it is in. */
+    public static String decode(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(MARKER.length()));
+        Inflater inflater = new Inflater(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+        try {
+            inflater.setInput(compressed);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, n);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
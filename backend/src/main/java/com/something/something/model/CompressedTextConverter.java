@@ -0,0 +1,43 @@
+package com.something.something.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compresses large entry bodies on write when
+ * app.entries.compression.enabled is set; always reads both forms, so the
+ * setting can be turned off again without touching the data.
+ */
+@Component
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    private final boolean enabled;
+    private final int minLength;
+
+    public CompressedTextConverter(@Value("${app.entries.compression.enabled:false}") boolean enabled,
+            @Value("${app.entries.compression.min-length:1024}") int minLength) {
+        this.enabled = enabled;
+        this.minLength = minLength;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String text) {
+        return CompressedText.encode(text, enabled ? minLength : -1);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        return CompressedText.decode(stored);
+    }
+}
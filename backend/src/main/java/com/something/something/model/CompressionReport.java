@@ -0,0 +1,24 @@
+package com.something.something.model;
+
+import java.util.List;
+
+/**
+ * How the compressible entry bodies are stored. Sizes are UTF-8 bytes;
+ * decodeMicros is the mean time to decode one compressed value.
+ */
+public record CompressionReport(
+        boolean enabled,
+        int minLength,
+        long rows,
+        List<FieldStats> fields) {
+
+    public record FieldStats(
+            ContentField field,
+            long values,
+            long compressedValues,
+            long storedBytes,
+            long originalBytes,
+            double ratio,
+            double decodeMicros) {
+    }
+}
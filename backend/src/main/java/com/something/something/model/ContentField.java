@@ -0,0 +1,67 @@
+package com.something.something.model;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The editable body fields of a SoupEntry, each with the phase in which it
+ * becomes editable and its property name in the phase edit requests.
+ */
+public enum ContentField {
+
+    EXAMPLE_DESCRIPTION(SoupStatus.DRAFT_EXAMPLE, "description",
+            SoupEntry::getExampleDescription, SoupEntry::setExampleDescription),
+    EXAMPLE_STARTER_CODE(SoupStatus.DRAFT_EXAMPLE, "starterCode",
+            SoupEntry::getExampleStarterCode, SoupEntry::setExampleStarterCode),
+    EXAMPLE_TESTS_CODE(SoupStatus.DRAFT_EXAMPLE, "testsCode",
+            SoupEntry::getExampleTestsCode, SoupEntry::setExampleTestsCode),
+    EXAMPLE_SIMULATION_CODE(SoupStatus.DRAFT_EXAMPLE, "simulationCode",
+            SoupEntry::getExampleSimulationCode, SoupEntry::setExampleSimulationCode),
+    EXPLANATION_ASSUMPTION(SoupStatus.DRAFT_EXPLANATION, "assumption",
+            SoupEntry::getExplanationAssumption, SoupEntry::setExplanationAssumption),
+    EXPLANATION_INVARIANT(SoupStatus.DRAFT_EXPLANATION, "invariant",
+            SoupEntry::getExplanationInvariant, SoupEntry::setExplanationInvariant),
+    EXPLANATION_MACHINE_BEHAVIOR(SoupStatus.DRAFT_EXPLANATION, "machineBehavior",
+            SoupEntry::getExplanationMachineBehavior, SoupEntry::setExplanationMachineBehavior),
+    ARTICLE_CONTENT(SoupStatus.DRAFT_ARTICLE, "articleContent",
+            SoupEntry::getArticleContent, SoupEntry::setArticleContent);
+
+    private final SoupStatus phase;
+    private final String property;
+    private final Function<SoupEntry, String> getter;
+    private final BiConsumer<SoupEntry, String> setter;
+
+    ContentField(SoupStatus phase, String property, Function<SoupEntry, String> getter,
+            BiConsumer<SoupEntry, String> setter) {
+        this.phase = phase;
+        this.property = property;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /** The status an entry must have reached before this field can be edited. */
+    public SoupStatus phase() {
+        return phase;
+    }
+
+    /**
+     * The field of {@code phase} named {@code property} in a phase edit
+     * request, e.g. (DRAFT_EXAMPLE, "starterCode").
+     */
+    public static ContentField of(SoupStatus phase, String property) {
+        for (ContentField field : values()) {
+            if (field.phase == phase && field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + property);
+    }
+
+    public String get(SoupEntry entry) {
+        return getter.apply(entry);
+    }
+
+    public void set(SoupEntry entry, String value) {
+        setter.accept(entry, value);
+    }
+}
@@ -0,0 +1,14 @@
+package com.something.something.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record ContentReloadStats(
+        String directory,
+        int items,
+        long reloads,
+        long failures,
+        Duration lastReloadDuration,
+        Instant lastReloadAt,
+        String lastFailure) {
+}
@@ -0,0 +1,11 @@
+package com.something.something.model;
+
+import java.time.Instant;
+
+/** A content field's full value as of one revision. */
+public record ContentRevision(
+        ContentField field,
+        int revision,
+        Instant createdAt,
+        String content) {
+}
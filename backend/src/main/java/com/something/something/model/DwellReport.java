@@ -0,0 +1,11 @@
+package com.something.something.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record DwellReport(
+        Instant from,
+        Instant to,
+        long sessions,
+        List<PhaseDwell> transitions) {
+}
@@ -0,0 +1,10 @@
+package com.something.something.model;
+
+import java.util.List;
+
+/**
+ * One page of the admin entry listing. {@code nextCursor} is passed back to
+ * fetch the following page and is null on the last one.
+ */
+public record EntryPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,11 @@
+package com.something.something.model;
+
+public record PhaseDwell(
+        Phase from,
+        Phase to,
+        long count,
+        long p50Ms,
+        long p90Ms,
+        long p99Ms,
+        long maxMs) {
+}
@@ -0,0 +1,11 @@
+package com.something.something.model;
+
+import java.time.Instant;
+
+public record PublishedEntrySummary(
+        String slug,
+        String title,
+        String description,
+        boolean hasArticle,
+        Instant publishedAt) {
+}
@@ -1,5 +1,8 @@
 package com.something.something.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Reading {
 
     private String id;
@@ -7,6 +10,8 @@ public class Reading {
     private String summary;
     private String markdownContent;
     private String category;
+    // Pre-rendered, sanitized HTML of markdownContent; only sent on request.
+    private String htmlContent;
 
     public Reading() {
     }
@@ -58,4 +63,12 @@ public class Reading {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    public String getHtmlContent() {
+        return htmlContent;
+    }
+
+    public void setHtmlContent(String htmlContent) {
+        this.htmlContent = htmlContent;
+    }
 }
@@ -0,0 +1,13 @@
+package com.something.something.model;
+
+import java.time.Instant;
+
+/** Revision listing row: everything about an edit except its body. */
+public record RevisionSummary(
+        ContentField field,
+        int revision,
+        int baseRevision,
+        boolean snapshot,
+        Integer length,
+        Instant createdAt) {
+}
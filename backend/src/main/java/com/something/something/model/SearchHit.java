@@ -0,0 +1,35 @@
+package com.something.something.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * One search result. {@code id} is the reading or task id, or the slug of a
+ * published entry; {@code snippet} is plain text around the first match.
+ */
+public record SearchHit(
+        Kind kind,
+        String id,
+        String title,
+        String snippet,
+        double score) {
+
+    public enum Kind {
+        READING,
+        TASK,
+        ENTRY;
+
+        /** Parses a kind name in any case, e.g. {@code task} or {@code TASK}. */
+        public static Kind of(String name) {
+            for (Kind kind : values()) {
+                if (kind.name().equalsIgnoreCase(name.trim())) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown type '" + name.trim() + "'; allowed: "
+                    + Arrays.stream(values()).map(k -> k.name().toLowerCase(Locale.ROOT))
+                            .collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.something.something.model;
+
+import java.util.List;
+
+/** One page of search hits; {@code total} counts every match. */
+public record SearchResults(
+        String query,
+        int total,
+        int offset,
+        List<SearchHit> hits) {
+}
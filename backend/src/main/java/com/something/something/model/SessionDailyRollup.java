@@ -0,0 +1,79 @@
+package com.something.something.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Archived user sessions, counted per creation day (UTC) and final
+ * position in the funnel. Admin metrics add these to the live rows.
+ */
+@Entity
+@Table(name = "session_daily_rollups")
+public class SessionDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate sessionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Phase currentPhase;
+
+    @Enumerated(EnumType.STRING)
+    private Phase quitPhase;
+
+    @Column(nullable = false)
+    private long sessions;
+
+    @Column(nullable = false)
+    private long reachedFork;
+
+    @Column(nullable = false)
+    private long exited;
+
+    public SessionDailyRollup() {
+    }
+
+    public SessionDailyRollup(LocalDate sessionDate, Phase currentPhase, Phase quitPhase) {
+        this.sessionDate = sessionDate;
+        this.currentPhase = currentPhase;
+        this.quitPhase = quitPhase;
+    }
+
+    public void add(long sessions, long reachedFork, long exited) {
+        this.sessions += sessions;
+        this.reachedFork += reachedFork;
+        this.exited += exited;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getSessionDate() {
+        return sessionDate;
+    }
+
+    public Phase getCurrentPhase() {
+        return currentPhase;
+    }
+
+    public Phase getQuitPhase() {
+        return quitPhase;
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public long getReachedFork() {
+        return reachedFork;
+    }
+
+    public long getExited() {
+        return exited;
+    }
+}
@@ -0,0 +1,20 @@
+package com.something.something.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One user_sessions row as written by the NDJSON export: the same fields
+ * the session API returns, read without loading the entity.
+ */
+public record SessionExportRow(
+        UUID id,
+        Phase currentPhase,
+        Instant createdAt,
+        Instant hazardAcceptedAt,
+        Instant codeSubmittedAt,
+        Instant failureRevealedAt,
+        Instant forkReachedAt,
+        Instant exitedAt,
+        Phase quitPhase) {
+}
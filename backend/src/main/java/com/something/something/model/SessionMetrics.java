@@ -0,0 +1,11 @@
+package com.something.something.model;
+
+import java.util.Map;
+
+public record SessionMetrics(
+        long totalSessions,
+        Map<String, Long> sessionsByPhase,
+        Map<String, Long> quitDistribution,
+        long completedToFork,
+        long totalExited) {
+}
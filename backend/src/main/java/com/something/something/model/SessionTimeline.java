@@ -0,0 +1,17 @@
+package com.something.something.model;
+
+import java.time.Instant;
+
+/**
+ * The timestamp columns of one user session, read without loading the
+ * entity.
+ */
+public record SessionTimeline(
+        Instant createdAt,
+        Instant hazardAcceptedAt,
+        Instant codeSubmittedAt,
+        Instant failureRevealedAt,
+        Instant forkReachedAt,
+        Instant exitedAt,
+        Phase quitPhase) {
+}
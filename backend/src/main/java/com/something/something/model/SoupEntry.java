@@ -1,10 +1,13 @@
 package com.something.something.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
 @Table(name = "soup_entries")
 public class SoupEntry {
 
@@ -25,32 +28,17 @@ public class SoupEntry {
     @Column(nullable = false)
     private SoupStatus status;
 
-    // Phase 1: Example
-    @Column(columnDefinition = "TEXT")
-    private String exampleDescription;
-
-    @Column(columnDefinition = "TEXT")
-    private String exampleStarterCode;
-
-    @Column(columnDefinition = "TEXT")
-    private String exampleTestsCode;
-
-    @Column(columnDefinition = "TEXT")
-    private String exampleSimulationCode;
-
-    // Phase 2: Explanation
-    @Column(columnDefinition = "TEXT")
-    private String explanationAssumption;
-
-    @Column(columnDefinition = "TEXT")
-    private String explanationInvariant;
-
-    @Column(columnDefinition = "TEXT")
-    private String explanationMachineBehavior;
+    // Example, explanation and article bodies; only loaded when one of the
+    // delegating accessors below is used.
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id")
+    @JsonIgnore
+    private SoupEntryContent content;
 
-    // Phase 3: Article
-    @Column(columnDefinition = "TEXT")
-    private String articleContent;
+    // Whether the article is non-blank; kept by SoupEntryService so the
+    // public listing can tell without reading the body.
+    @Column(nullable = false)
+    private boolean hasArticle;
 
     // Timestamps
     private Instant createdAt;
@@ -67,6 +55,7 @@ public class SoupEntry {
         entry.slug = slug;
         entry.description = description;
         entry.status = SoupStatus.DRAFT_EXAMPLE;
+        entry.content = new SoupEntryContent(entry.id);
         entry.createdAt = Instant.now();
         entry.updatedAt = Instant.now();
         return entry;
@@ -115,67 +104,83 @@ public class SoupEntry {
     }
 
     public String getExampleDescription() {
-        return exampleDescription;
+        return content().getExampleDescription();
     }
 
     public void setExampleDescription(String exampleDescription) {
-        this.exampleDescription = exampleDescription;
+        content().setExampleDescription(exampleDescription);
     }
 
     public String getExampleStarterCode() {
-        return exampleStarterCode;
+        return content().getExampleStarterCode();
     }
 
     public void setExampleStarterCode(String exampleStarterCode) {
-        this.exampleStarterCode = exampleStarterCode;
+        content().setExampleStarterCode(exampleStarterCode);
     }
 
     public String getExampleTestsCode() {
-        return exampleTestsCode;
+        return content().getExampleTestsCode();
     }
 
     public void setExampleTestsCode(String exampleTestsCode) {
-        this.exampleTestsCode = exampleTestsCode;
+        content().setExampleTestsCode(exampleTestsCode);
     }
 
     public String getExampleSimulationCode() {
-        return exampleSimulationCode;
+        return content().getExampleSimulationCode();
     }
 
     public void setExampleSimulationCode(String exampleSimulationCode) {
-        this.exampleSimulationCode = exampleSimulationCode;
+        content().setExampleSimulationCode(exampleSimulationCode);
     }
 
     public String getExplanationAssumption() {
-        return explanationAssumption;
+        return content().getExplanationAssumption();
     }
 
     public void setExplanationAssumption(String explanationAssumption) {
-        this.explanationAssumption = explanationAssumption;
+        content().setExplanationAssumption(explanationAssumption);
     }
 
     public String getExplanationInvariant() {
-        return explanationInvariant;
+        return content().getExplanationInvariant();
     }
 
     public void setExplanationInvariant(String explanationInvariant) {
-        this.explanationInvariant = explanationInvariant;
+        content().setExplanationInvariant(explanationInvariant);
     }
 
     public String getExplanationMachineBehavior() {
-        return explanationMachineBehavior;
+        return content().getExplanationMachineBehavior();
     }
 
     public void setExplanationMachineBehavior(String explanationMachineBehavior) {
-        this.explanationMachineBehavior = explanationMachineBehavior;
+        content().setExplanationMachineBehavior(explanationMachineBehavior);
     }
 
     public String getArticleContent() {
-        return articleContent;
+        return content().getArticleContent();
     }
 
     public void setArticleContent(String articleContent) {
-        this.articleContent = articleContent;
+        content().setArticleContent(articleContent);
+    }
+
+    public boolean isHasArticle() {
+        return hasArticle;
+    }
+
+    public void setHasArticle(boolean hasArticle) {
+        this.hasArticle = hasArticle;
+    }
+
+    public SoupEntryContent getContent() {
+        return content;
+    }
+
+    public void setContent(SoupEntryContent content) {
+        this.content = content;
     }
 
     public Instant getCreatedAt() {
@@ -201,4 +206,11 @@ public class SoupEntry {
     public void setPublishedAt(Instant publishedAt) {
         this.publishedAt = publishedAt;
     }
+
+    private SoupEntryContent content() {
+        if (content == null) {
+            content = new SoupEntryContent(id);
+        }
+        return content;
+    }
 }
@@ -0,0 +1,135 @@
+package com.something.something.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import java.util.UUID;
+
+/**
+ * The large phase bodies of a SoupEntry, kept out of soup_entries so listing
+ * and workflow queries never read them. Shares its id with the entry.
+ * Updates write only the columns that changed, so saving one field does
+ * not rewrite the other bodies. The code and article columns may hold
+ * compressed text (see CompressedTextConverter); it is decoded when this
+ * row is loaded, which only happens when an entry's bodies are used.
+ */
+@Entity
+@DynamicUpdate
+@Table(name = "soup_entry_contents")
+public class SoupEntryContent {
+
+    @Id
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    // Phase 1: Example
+    @Column(columnDefinition = "TEXT")
+    private String exampleDescription;
+
+    @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
+    private String exampleStarterCode;
+
+    @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
+    private String exampleTestsCode;
+
+    @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
+    private String exampleSimulationCode;
+
+    // Phase 2: Explanation
+    @Column(columnDefinition = "TEXT")
+    private String explanationAssumption;
+
+    @Column(columnDefinition = "TEXT")
+    private String explanationInvariant;
+
+    @Column(columnDefinition = "TEXT")
+    private String explanationMachineBehavior;
+
+    // Phase 3: Article
+    @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
+    private String articleContent;
+
+    public SoupEntryContent() {
+    }
+
+    public SoupEntryContent(UUID id) {
+        this.id = id;
+    }
+
+    // Getters and setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getExampleDescription() {
+        return exampleDescription;
+    }
+
+    public void setExampleDescription(String exampleDescription) {
+        this.exampleDescription = exampleDescription;
+    }
+
+    public String getExampleStarterCode() {
+        return exampleStarterCode;
+    }
+
+    public void setExampleStarterCode(String exampleStarterCode) {
+        this.exampleStarterCode = exampleStarterCode;
+    }
+
+    public String getExampleTestsCode() {
+        return exampleTestsCode;
+    }
+
+    public void setExampleTestsCode(String exampleTestsCode) {
+        this.exampleTestsCode = exampleTestsCode;
+    }
+
+    public String getExampleSimulationCode() {
+        return exampleSimulationCode;
+    }
+
+    public void setExampleSimulationCode(String exampleSimulationCode) {
+        this.exampleSimulationCode = exampleSimulationCode;
+    }
+
+    public String getExplanationAssumption() {
+        return explanationAssumption;
+    }
+
+    public void setExplanationAssumption(String explanationAssumption) {
+        this.explanationAssumption = explanationAssumption;
+    }
+
+    public String getExplanationInvariant() {
+        return explanationInvariant;
+    }
+
+    public void setExplanationInvariant(String explanationInvariant) {
+        this.explanationInvariant = explanationInvariant;
+    }
+
+    public String getExplanationMachineBehavior() {
+        return explanationMachineBehavior;
+    }
+
+    public void setExplanationMachineBehavior(String explanationMachineBehavior) {
+        this.explanationMachineBehavior = explanationMachineBehavior;
+    }
+
+    public String getArticleContent() {
+        return articleContent;
+    }
+
+    public void setArticleContent(String articleContent) {
+        this.articleContent = articleContent;
+    }
+}
@@ -0,0 +1,125 @@
+package com.something.something.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One edit to one content field of a SoupEntry. A snapshot holds the whole
+ * new value in {@code body}; a delta holds only the changed middle, to be
+ * placed between the first {@code prefixLength} and last
+ * {@code suffixLength} characters of the previous revision.
+ * {@code baseRevision} is the snapshot the delta chain starts from.
+ */
+@Entity
+@Table(name = "soup_entry_revisions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_soup_entry_revisions_revision", columnNames = { "entry_id", "field", "revision" }))
+public class SoupEntryRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entry_id", nullable = false, columnDefinition = "UUID")
+    private UUID entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ContentField field;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false)
+    private int baseRevision;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    private int prefixLength;
+    private int suffixLength;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    // Length of the field after this edit; null when the edit cleared it.
+    private Integer length;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public SoupEntryRevision() {
+    }
+
+    public static SoupEntryRevision snapshot(UUID entryId, ContentField field, int revision, String value,
+            Instant createdAt) {
+        SoupEntryRevision r = new SoupEntryRevision(entryId, field, revision, revision, true, createdAt);
+        r.body = value;
+        r.length = value == null ? null : value.length();
+        return r;
+    }
+
+    public static SoupEntryRevision delta(UUID entryId, ContentField field, int revision, int baseRevision,
+            int prefixLength, int suffixLength, String middle, int length, Instant createdAt) {
+        SoupEntryRevision r = new SoupEntryRevision(entryId, field, revision, baseRevision, false, createdAt);
+        r.prefixLength = prefixLength;
+        r.suffixLength = suffixLength;
+        r.body = middle;
+        r.length = length;
+        return r;
+    }
+
+    private SoupEntryRevision(UUID entryId, ContentField field, int revision, int baseRevision, boolean snapshot,
+            Instant createdAt) {
+        this.entryId = entryId;
+        this.field = field;
+        this.revision = revision;
+        this.baseRevision = baseRevision;
+        this.snapshot = snapshot;
+        this.createdAt = createdAt;
+    }
+
+    /** The field's value at this revision, given its value at the one before. */
+    public String applyTo(String previous) {
+        if (snapshot) {
+            return body;
+        }
+        return previous.substring(0, prefixLength) + body + previous.substring(previous.length() - suffixLength);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getEntryId() {
+        return entryId;
+    }
+
+    public ContentField getField() {
+        return field;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public int getBaseRevision() {
+        return baseRevision;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.something.something.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Admin listing row: an entry's own columns without its content bodies. */
+public record SoupEntrySummary(
+        UUID id,
+        String slug,
+        String title,
+        String description,
+        SoupStatus status,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant publishedAt) {
+}
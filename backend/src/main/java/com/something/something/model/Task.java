@@ -1,11 +1,16 @@
 package com.something.something.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Task {
 
     private String id;
     private String title;
     private String description;
     private String starterCode;
+    // Pre-rendered, sanitized HTML of description; only sent on request.
+    private String descriptionHtml;
 
     public Task() {
     }
@@ -48,4 +53,12 @@ public class Task {
     public void setStarterCode(String starterCode) {
         this.starterCode = starterCode;
     }
+
+    public String getDescriptionHtml() {
+        return descriptionHtml;
+    }
+
+    public void setDescriptionHtml(String descriptionHtml) {
+        this.descriptionHtml = descriptionHtml;
+    }
 }
@@ -1,6 +1,8 @@
 package com.something.something.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -26,6 +28,14 @@ public class UserSession {
     @Enumerated(EnumType.STRING)
     private Phase quitPhase;
 
+    // Guards read-modify-write saves; the conditional advance in
+    // UserSessionRepository bumps it explicitly.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonIgnore
+    private long version;
+
     public UserSession() {
     }
 
@@ -108,4 +118,12 @@ public class UserSession {
     public void setQuitPhase(Phase quitPhase) {
         this.quitPhase = quitPhase;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,21 @@
+package com.something.something.repository;
+
+import com.something.something.model.Phase;
+
+/**
+ * One row of the grouped funnel aggregate: the number of sessions sharing a
+ * (currentPhase, quitPhase) pair, plus how many of them reached the Fork and
+ * how many exited.
+ */
+public interface PhaseFunnelCount {
+
+    Phase getCurrentPhase();
+
+    Phase getQuitPhase();
+
+    Long getSessions();
+
+    Long getReachedFork();
+
+    Long getExited();
+}
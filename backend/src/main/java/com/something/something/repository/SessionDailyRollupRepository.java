@@ -0,0 +1,43 @@
+package com.something.something.repository;
+
+import com.something.something.model.Phase;
+import com.something.something.model.SessionDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SessionDailyRollupRepository extends JpaRepository<SessionDailyRollup, Long> {
+
+    // Adds to the day's row in place, so archivers on other instances cannot
+    // overwrite each other's counts; 0 when the row does not exist yet.
+    @Modifying
+    @Query("""
+            UPDATE SessionDailyRollup r SET
+                r.sessions = r.sessions + :sessions,
+                r.reachedFork = r.reachedFork + :reachedFork,
+                r.exited = r.exited + :exited
+            WHERE r.sessionDate = :sessionDate AND r.currentPhase = :currentPhase
+              AND (r.quitPhase = :quitPhase OR (r.quitPhase IS NULL AND :quitPhase IS NULL))
+            """)
+    int addCounts(@Param("sessionDate") LocalDate sessionDate, @Param("currentPhase") Phase currentPhase,
+            @Param("quitPhase") Phase quitPhase, @Param("sessions") long sessions,
+            @Param("reachedFork") long reachedFork, @Param("exited") long exited);
+
+    // Same shape as UserSessionRepository.summarizeFunnel, over all days.
+    @Query("""
+            SELECT r.currentPhase AS currentPhase,
+                   r.quitPhase AS quitPhase,
+                   SUM(r.sessions) AS sessions,
+                   SUM(r.reachedFork) AS reachedFork,
+                   SUM(r.exited) AS exited
+            FROM SessionDailyRollup r
+            GROUP BY r.currentPhase, r.quitPhase
+            """)
+    List<PhaseFunnelCount> summarizeFunnel();
+}
@@ -0,0 +1,74 @@
+package com.something.something.repository;
+
+import com.something.something.model.SoupEntryContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Raw access to the compressible body columns, bypassing
+ * CompressedTextConverter so callers see and write the stored form.
+ * Everything else goes through SoupEntry's content association.
+ */
+@Repository
+public interface SoupEntryContentRepository extends JpaRepository<SoupEntryContent, UUID> {
+
+    interface StoredBodies {
+        UUID getId();
+
+        String getExampleStarterCode();
+
+        String getExampleTestsCode();
+
+        String getExampleSimulationCode();
+
+        String getArticleContent();
+    }
+
+    // Keyset page by id; the all-zero UUID sorts first on both databases. The
+    // id is read as text because H2 returns native UUID columns as bytes.
+    @Query(nativeQuery = true, value = """
+            SELECT CAST(id AS VARCHAR) AS id,
+                   example_starter_code AS exampleStarterCode,
+                   example_tests_code AS exampleTestsCode,
+                   example_simulation_code AS exampleSimulationCode,
+                   article_content AS articleContent
+            FROM soup_entry_contents
+            WHERE id > :after
+            ORDER BY id
+            LIMIT :limit
+            """)
+    List<StoredBodies> findStoredAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    // The same page, locked so edits cannot land between reading and rewriting it.
+    @Query(nativeQuery = true, value = """
+            SELECT CAST(id AS VARCHAR) AS id,
+                   example_starter_code AS exampleStarterCode,
+                   example_tests_code AS exampleTestsCode,
+                   example_simulation_code AS exampleSimulationCode,
+                   article_content AS articleContent
+            FROM soup_entry_contents
+            WHERE id > :after
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE
+            """)
+    List<StoredBodies> lockStoredAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE soup_entry_contents SET
+                example_starter_code = :starter,
+                example_tests_code = :tests,
+                example_simulation_code = :simulation,
+                article_content = :article
+            WHERE id = :id
+            """)
+    int writeStored(@Param("id") UUID id, @Param("starter") String starter, @Param("tests") String tests,
+            @Param("simulation") String simulation, @Param("article") String article);
+}
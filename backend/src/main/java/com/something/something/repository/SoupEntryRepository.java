@@ -1,9 +1,18 @@
 package com.something.something.repository;
 
+import com.something.something.model.PublishedEntrySummary;
 import com.something.something.model.SoupEntry;
+import com.something.something.model.SoupEntrySummary;
 import com.something.something.model.SoupStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,7 +21,65 @@ public interface SoupEntryRepository extends JpaRepository<SoupEntry, UUID> {
 
     List<SoupEntry> findByStatusOrderByCreatedAtDesc(SoupStatus status);
 
+    // Listing columns only; the TEXT bodies never leave the database.
+    @Query("""
+            SELECT new com.something.something.model.PublishedEntrySummary(
+                e.slug, e.title, e.description, e.hasArticle, e.publishedAt)
+            FROM SoupEntry e
+            WHERE e.status = com.something.something.model.SoupStatus.PUBLISHED
+            ORDER BY e.createdAt DESC
+            """)
+    List<PublishedEntrySummary> findPublishedSummaries();
+
+    // Full entries for the admin listing, bodies included, in one query.
+    @Query("SELECT e FROM SoupEntry e LEFT JOIN FETCH e.content")
+    List<SoupEntry> findAllWithContent();
+
+    // Admin listing pages, newest first. Keyset on (createdAt, id): each page
+    // starts strictly after the last row of the previous one, so the cost of
+    // a page does not depend on how deep into the catalogue it is.
+    @Query("""
+            SELECT new com.something.something.model.SoupEntrySummary(
+                e.id, e.slug, e.title, e.description, e.status, e.createdAt, e.updatedAt, e.publishedAt)
+            FROM SoupEntry e
+            WHERE e.status IN :statuses
+              AND (e.createdAt, e.id) < (:createdAt, :id)
+            ORDER BY e.createdAt DESC, e.id DESC
+            """)
+    List<SoupEntrySummary> findSummaryPage(@Param("statuses") Collection<SoupStatus> statuses,
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
+    // Same page with the content bodies fetched in the same query.
+    @Query("""
+            SELECT e FROM SoupEntry e LEFT JOIN FETCH e.content
+            WHERE e.status IN :statuses
+              AND (e.createdAt, e.id) < (:createdAt, :id)
+            ORDER BY e.createdAt DESC, e.id DESC
+            """)
+    List<SoupEntry> findPageWithContent(@Param("statuses") Collection<SoupStatus> statuses,
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
+    // Published entries with their bodies, for building the search index.
+    @Query("""
+            SELECT e FROM SoupEntry e LEFT JOIN FETCH e.content
+            WHERE e.status = com.something.something.model.SoupStatus.PUBLISHED
+            """)
+    List<SoupEntry> findPublishedWithContent();
+
+    // Serializes content edits of one entry, so each reads the values and
+    // revision numbers the previous one left.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM SoupEntry e WHERE e.id = :id")
+    Optional<SoupEntry> findByIdForUpdate(@Param("id") UUID id);
+
     Optional<SoupEntry> findBySlug(String slug);
 
+    // Version of a published entry, checked before serving its cached render.
+    @Query("""
+            SELECT e.updatedAt FROM SoupEntry e
+            WHERE e.slug = :slug AND e.status = com.something.something.model.SoupStatus.PUBLISHED
+            """)
+    Optional<Instant> findPublishedUpdatedAt(@Param("slug") String slug);
+
     boolean existsBySlug(String slug);
 }
@@ -0,0 +1,53 @@
+package com.something.something.repository;
+
+import com.something.something.model.ContentField;
+import com.something.something.model.RevisionSummary;
+import com.something.something.model.SoupEntryRevision;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SoupEntryRevisionRepository extends JpaRepository<SoupEntryRevision, Long> {
+
+    // Revision metadata, newest first; bodies are never selected.
+    @Query("""
+            SELECT new com.something.something.model.RevisionSummary(
+                r.field, r.revision, r.baseRevision, r.snapshot, r.length, r.createdAt)
+            FROM SoupEntryRevision r
+            WHERE r.entryId = :entryId AND r.field IN :fields
+            ORDER BY r.createdAt DESC, r.field, r.revision DESC
+            """)
+    List<RevisionSummary> findSummaries(@Param("entryId") UUID entryId,
+            @Param("fields") Collection<ContentField> fields);
+
+    @Query("""
+            SELECT new com.something.something.model.RevisionSummary(
+                r.field, r.revision, r.baseRevision, r.snapshot, r.length, r.createdAt)
+            FROM SoupEntryRevision r
+            WHERE r.entryId = :entryId AND r.field = :field
+            ORDER BY r.revision DESC
+            """)
+    List<RevisionSummary> findLatest(@Param("entryId") UUID entryId, @Param("field") ContentField field,
+            Limit limit);
+
+    // The rows needed to rebuild one revision: its base snapshot and the
+    // deltas after it, in order.
+    @Query("""
+            SELECT r FROM SoupEntryRevision r
+            WHERE r.entryId = :entryId AND r.field = :field
+              AND r.revision BETWEEN
+                  (SELECT t.baseRevision FROM SoupEntryRevision t
+                   WHERE t.entryId = :entryId AND t.field = :field AND t.revision = :revision)
+                  AND :revision
+            ORDER BY r.revision
+            """)
+    List<SoupEntryRevision> findChain(@Param("entryId") UUID entryId, @Param("field") ContentField field,
+            @Param("revision") int revision);
+}
@@ -1,20 +1,113 @@
 package com.something.something.repository;
 
 import com.something.something.model.Phase;
+import com.something.something.model.SessionExportRow;
+import com.something.something.model.SessionTimeline;
 import com.something.something.model.UserSession;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserSessionRepository extends JpaRepository<UserSession, UUID> {
 
+    /**
+     * Moves the session from {@code expected} to {@code next} and stamps the
+     * timestamp of the phase being entered, in one statement. Applies only
+     * if the session is still in {@code expected}; returns the number of
+     * rows changed (0 or 1). The CASE branches read the pre-update phase and
+     * must match SessionService's advance rules.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE UserSession s SET
+                s.currentPhase = :next,
+                s.hazardAcceptedAt = CASE WHEN s.currentPhase = com.something.something.model.Phase.HAZARD_WARNING
+                    THEN :now ELSE s.hazardAcceptedAt END,
+                s.codeSubmittedAt = CASE WHEN s.currentPhase = com.something.something.model.Phase.COMFORT_BAIT
+                    THEN :now ELSE s.codeSubmittedAt END,
+                s.failureRevealedAt = CASE WHEN s.currentPhase = com.something.something.model.Phase.HIDDEN_FAILURE
+                    THEN :now ELSE s.failureRevealedAt END,
+                s.forkReachedAt = CASE WHEN s.currentPhase = com.something.something.model.Phase.REVEAL
+                    THEN :now ELSE s.forkReachedAt END,
+                s.version = s.version + 1
+            WHERE s.id = :id AND s.currentPhase = :expected
+            """)
+    int advanceIfInPhase(@Param("id") UUID id, @Param("expected") Phase expected,
+            @Param("next") Phase next, @Param("now") Instant now);
+
     long countByCurrentPhase(Phase phase);
 
     long countByQuitPhaseIsNotNull();
 
     @Query("SELECT COUNT(s) FROM UserSession s WHERE s.exitedAt IS NOT NULL")
     long countExited();
+
+    // Whole funnel in one round trip; the group count is bounded by the
+    // number of (phase, quit phase) pairs, not by the number of sessions.
+    @Query("""
+            SELECT s.currentPhase AS currentPhase,
+                   s.quitPhase AS quitPhase,
+                   COUNT(s) AS sessions,
+                   SUM(CASE WHEN s.forkReachedAt IS NOT NULL THEN 1 ELSE 0 END) AS reachedFork,
+                   SUM(CASE WHEN s.exitedAt IS NOT NULL THEN 1 ELSE 0 END) AS exited
+            FROM UserSession s
+            GROUP BY s.currentPhase, s.quitPhase
+            """)
+    List<PhaseFunnelCount> summarizeFunnel();
+
+    // Timestamps of sessions created in [from, to), fetched from a cursor in
+    // chunks. Must be consumed inside a transaction and closed.
+    @Query("""
+            SELECT new com.something.something.model.SessionTimeline(
+                s.createdAt, s.hazardAcceptedAt, s.codeSubmittedAt, s.failureRevealedAt,
+                s.forkReachedAt, s.exitedAt, s.quitPhase)
+            FROM UserSession s
+            WHERE s.createdAt >= :from AND s.createdAt < :to
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SessionTimeline> streamTimelines(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Oldest sessions created before the cutoff that are finished (exited) or
+    // have not moved since it; phases are stamped in order, so the first
+    // non-null stamp from the Fork down is the latest. Locked so that a
+    // second archiver waits and then skips the rows this one deletes.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT s FROM UserSession s
+            WHERE s.createdAt < :cutoff
+              AND (s.exitedAt IS NOT NULL
+                   OR COALESCE(s.forkReachedAt, s.failureRevealedAt, s.codeSubmittedAt,
+                               s.hazardAcceptedAt, s.createdAt) < :cutoff)
+            ORDER BY s.createdAt
+            """)
+    List<UserSession> findArchivable(@Param("cutoff") Instant cutoff, Limit limit);
+
+    // Every column of sessions created in [from, to), oldest first, through
+    // a forward-only cursor. Must be consumed inside a transaction and closed.
+    @Query("""
+            SELECT new com.something.something.model.SessionExportRow(
+                s.id, s.currentPhase, s.createdAt, s.hazardAcceptedAt, s.codeSubmittedAt,
+                s.failureRevealedAt, s.forkReachedAt, s.exitedAt, s.quitPhase)
+            FROM UserSession s
+            WHERE s.createdAt >= :from AND s.createdAt < :to
+            ORDER BY s.createdAt, s.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SessionExportRow> streamForExport(@Param("from") Instant from, @Param("to") Instant to);
 }
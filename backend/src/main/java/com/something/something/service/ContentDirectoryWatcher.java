@@ -0,0 +1,127 @@
+package com.something.something.service;
+
+import com.something.something.model.ContentReloadStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches app.content.dir (when set) and hands changed markdown files to the
+ * ContentLibrary registered for their subdirectory. Events are gathered
+ * until the directory has been quiet for a short while, so an editor's
+ * save-and-rename produces one reload rather than several.
+ *
+ * A library's directory is watched from the moment it registers, which is
+ * before its initial load; events queue up in the watch key until the
+ * watcher thread starts with the application, so nothing changed in between
+ * is missed.
+ */
+@Component
+public class ContentDirectoryWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentDirectoryWatcher.class);
+    private static final long QUIET_MILLIS = 200;
+
+    private final Path contentRoot;
+    private final List<ContentLibrary<?>> libraries = new CopyOnWriteArrayList<>();
+    private final Map<WatchKey, ContentLibrary<?>> keys = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ContentDirectoryWatcher(@Value("${app.content.dir:}") String contentDir) {
+        this.contentRoot = contentDir.isBlank() ? null : Path.of(contentDir).toAbsolutePath();
+    }
+
+    /** Where libraries should load override files from; null when disabled. */
+    public Path getContentRoot() {
+        return contentRoot;
+    }
+
+    public synchronized void register(ContentLibrary<?> library) throws IOException {
+        libraries.add(library);
+        if (contentRoot == null) {
+            return;
+        }
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+        }
+        Path dir = Files.createDirectories(contentRoot.resolve(library.getDirectory()));
+        WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        keys.put(key, library);
+    }
+
+    public List<ContentReloadStats> getStats() {
+        return libraries.stream().map(ContentLibrary::getStats).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (watchService == null) {
+            return;
+        }
+        thread = Thread.ofPlatform().daemon().name("content-watcher").start(this::watch);
+        log.info("Watching {} for content changes", contentRoot);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Map<ContentLibrary<?>, Set<Path>> changed = new LinkedHashMap<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collect(key, keys.get(key), changed);
+                    key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                changed.forEach(this::reload);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down.
+        }
+    }
+
+    // A failure here (publishing, rendering) must not end the thread, or
+    // hot reload would stop until restart.
+    private void reload(ContentLibrary<?> library, Set<Path> files) {
+        try {
+            library.reload(files);
+        } catch (RuntimeException e) {
+            library.recordFailure(e.toString());
+            log.error("Reloading {} failed", library.getDirectory(), e);
+        }
+    }
+
+    private void collect(WatchKey key, ContentLibrary<?> library, Map<ContentLibrary<?>, Set<Path>> changed) {
+        Set<Path> files = changed.computeIfAbsent(library, l -> new LinkedHashSet<>());
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were dropped; compare the whole directory instead.
+                files.addAll(library.getOverrideFiles());
+            } else {
+                files.add((Path) event.context());
+            }
+        }
+        key.reset();
+    }
+}
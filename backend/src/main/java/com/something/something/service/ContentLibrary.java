@@ -0,0 +1,319 @@
+package com.something.something.service;
+
+import com.something.something.model.ContentReloadStats;
+import com.something.something.web.PreparedJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * The markdown files of one content directory (readings, tasks), parsed and
+ * pre-serialized. Files bundled under classpath:{directory}/ are always
+ * loaded; files in an optional filesystem directory of the same name
+ * override or add to them and can be reloaded one file at a time.
+ *
+ * Readers get an immutable snapshot through a volatile read, so a reload
+ * never blocks them and they never see a half-applied change.
+ *
+ * With a renderer, each item also gets a pre-rendered variant (markdown
+ * compiled to HTML) that is serialized alongside the plain one.
+ */
+public class ContentLibrary<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentLibrary.class);
+
+    @FunctionalInterface
+    public interface Parser<T> {
+        T parse(String id, String content);
+    }
+
+    /** Told which items a load or reload added, replaced or removed. */
+    @FunctionalInterface
+    public interface Listener<T> {
+        void changed(Map<String, T> updated, Set<String> removed);
+    }
+
+    private record Snapshot<T>(
+            List<T> items,
+            Map<String, T> byId,
+            PreparedJson allJson,
+            Map<String, PreparedJson> jsonById,
+            PreparedJson renderedAllJson,
+            Map<String, PreparedJson> renderedJsonById) {
+    }
+
+    private final String directory;
+    private final Parser<T> parser;
+    private final UnaryOperator<T> renderer;
+    private final JsonMapper jsonMapper;
+
+    // Only touched under reloadLock.
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Map<String, T> bundled = new TreeMap<>();
+    private final Map<String, T> overrides = new TreeMap<>();
+    private final Map<String, T> renderedItems = new HashMap<>();
+    private final List<Listener<T>> listeners = new ArrayList<>();
+    private Path overrideDir;
+
+    private volatile Snapshot<T> snapshot;
+
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile Duration lastReloadDuration = Duration.ZERO;
+    private volatile Instant lastReloadAt;
+    private volatile String lastFailure;
+
+    /**
+     * @param renderer returns a copy of an item with its rendered fields
+     *                 filled in, or null to skip pre-rendering
+     */
+    public ContentLibrary(String directory, Parser<T> parser, UnaryOperator<T> renderer,
+            JsonMapper jsonMapper) {
+        this.directory = directory;
+        this.parser = parser;
+        this.renderer = renderer;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Full load: the bundled files, then every *.md file in
+     * {@code contentRoot}/{directory} when a content root is configured.
+     */
+    public void load(Path contentRoot) throws IOException {
+        reloadLock.lock();
+        try {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            Resource[] resources = resolver.getResources("classpath:" + directory + "/*.md");
+
+            Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
+
+            bundled.clear();
+            for (Resource resource : resources) {
+                String filename = resource.getFilename();
+                if (filename == null)
+                    continue;
+
+                String id = filename.replace(".md", "");
+                bundled.put(id, parser.parse(id, resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+
+            overrides.clear();
+            overrideDir = contentRoot == null ? null : contentRoot.resolve(directory);
+            if (overrideDir != null && Files.isDirectory(overrideDir)) {
+                try (Stream<Path> files = Files.list(overrideDir)) {
+                    for (Path file : files.filter(ContentLibrary::isMarkdown).toList()) {
+                        readOverride(file);
+                    }
+                }
+            }
+            publish();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads only the given files from the override directory; a file that
+     * no longer exists falls back to the bundled version, if any.
+     */
+    public void reload(Collection<Path> changedFiles) {
+        if (overrideDir == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        reloadLock.lock();
+        try {
+            boolean failed = false;
+            for (Path changed : changedFiles) {
+                Path file = overrideDir.resolve(changed.getFileName());
+                if (!isMarkdown(file)) {
+                    continue;
+                }
+                try {
+                    if (Files.exists(file)) {
+                        readOverride(file);
+                    } else {
+                        overrides.remove(idOf(file));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Keep serving the previous version of this file.
+                    failed = true;
+                    recordFailure(file.getFileName() + ": " + e.getMessage());
+                    log.warn("Could not reload {}", file, e);
+                }
+            }
+            publish();
+            reloads.incrementAndGet();
+            if (!failed) {
+                lastFailure = null;
+            }
+        } finally {
+            reloadLock.unlock();
+            lastReloadDuration = Duration.ofNanos(System.nanoTime() - start);
+            lastReloadAt = Instant.now();
+        }
+    }
+
+    /**
+     * Every file the override directory has now plus every override loaded
+     * before, i.e. what a reload must look at after events were lost.
+     */
+    public Set<Path> getOverrideFiles() {
+        Set<Path> files = new LinkedHashSet<>();
+        reloadLock.lock();
+        try {
+            if (overrideDir == null) {
+                return files;
+            }
+            overrides.keySet().forEach(id -> files.add(Path.of(id + ".md")));
+            try (Stream<Path> listing = Files.list(overrideDir)) {
+                listing.map(Path::getFileName).forEach(files::add);
+            } catch (IOException e) {
+                log.warn("Could not list {}", overrideDir, e);
+            }
+            return files;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Registers a listener and immediately hands it every current item as
+     * updated. Listeners run on the reloading thread, under the reload lock,
+     * after the new snapshot is visible.
+     */
+    public void addListener(Listener<T> listener) {
+        reloadLock.lock();
+        try {
+            listeners.add(listener);
+            Snapshot<T> current = snapshot;
+            if (current != null) {
+                listener.changed(current.byId(), Set.of());
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public List<T> getAll() {
+        return snapshot.items();
+    }
+
+    public Optional<T> get(String id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    /** The rendered variant falls back to the plain one when rendering is off. */
+    public PreparedJson getAllJson(boolean rendered) {
+        Snapshot<T> current = snapshot;
+        return rendered && renderer != null ? current.renderedAllJson() : current.allJson();
+    }
+
+    public Optional<PreparedJson> getJson(String id, boolean rendered) {
+        Snapshot<T> current = snapshot;
+        Map<String, PreparedJson> json = rendered && renderer != null
+                ? current.renderedJsonById()
+                : current.jsonById();
+        return Optional.ofNullable(json.get(id));
+    }
+
+    /** Counts a failed reload in the stats; the previous snapshot stays in place. */
+    void recordFailure(String failure) {
+        failures.incrementAndGet();
+        lastFailure = failure;
+    }
+
+    public ContentReloadStats getStats() {
+        Snapshot<T> current = snapshot;
+        return new ContentReloadStats(directory, current == null ? 0 : current.items().size(),
+                reloads.get(), failures.get(), lastReloadDuration, lastReloadAt, lastFailure);
+    }
+
+    private void readOverride(Path file) throws IOException {
+        overrides.put(idOf(file), parser.parse(idOf(file), Files.readString(file, StandardCharsets.UTF_8)));
+    }
+
+    // Caller holds reloadLock. Items that did not change keep their
+    // serialized (and rendered) form; only the list payloads are rebuilt.
+    private void publish() {
+        Map<String, T> merged = new TreeMap<>(bundled);
+        merged.putAll(overrides);
+
+        Snapshot<T> previous = snapshot;
+        Map<String, PreparedJson> jsonById = new HashMap<>();
+        Map<String, PreparedJson> renderedJsonById = new HashMap<>();
+        List<T> rendered = new ArrayList<>();
+        Map<String, T> updated = new LinkedHashMap<>();
+        for (Map.Entry<String, T> entry : merged.entrySet()) {
+            String id = entry.getKey();
+            T item = entry.getValue();
+            boolean unchanged = previous != null && previous.byId().get(id) == item;
+            if (!unchanged) {
+                updated.put(id, item);
+            }
+            jsonById.put(id, unchanged
+                    ? previous.jsonById().get(id)
+                    : PreparedJson.of(jsonMapper, item));
+            if (renderer != null) {
+                if (unchanged) {
+                    renderedJsonById.put(id, previous.renderedJsonById().get(id));
+                    rendered.add(renderedItems.get(id));
+                } else {
+                    T renderedItem = renderer.apply(item);
+                    renderedItems.put(id, renderedItem);
+                    renderedJsonById.put(id, PreparedJson.of(jsonMapper, renderedItem));
+                    rendered.add(renderedItem);
+                }
+            }
+        }
+        renderedItems.keySet().retainAll(merged.keySet());
+
+        List<T> items = List.copyOf(merged.values());
+        PreparedJson allJson = PreparedJson.of(jsonMapper, items);
+        snapshot = new Snapshot<>(items, Collections.unmodifiableMap(new LinkedHashMap<>(merged)),
+                allJson, Map.copyOf(jsonById),
+                renderer != null ? PreparedJson.of(jsonMapper, rendered) : allJson,
+                Map.copyOf(renderedJsonById));
+
+        Set<String> removed = new HashSet<>();
+        if (previous != null) {
+            removed.addAll(previous.byId().keySet());
+            removed.removeAll(merged.keySet());
+        }
+        if (!updated.isEmpty() || !removed.isEmpty()) {
+            for (Listener<T> listener : listeners) {
+                try {
+                    listener.changed(updated, removed);
+                } catch (RuntimeException e) {
+                    log.warn("Listener on {} failed", directory, e);
+                }
+            }
+        }
+    }
+
+    private static boolean isMarkdown(Path file) {
+        return file.getFileName().toString().endsWith(".md");
+    }
+
+    private static String idOf(Path file) {
+        return file.getFileName().toString().replace(".md", "");
+    }
+}
@@ -0,0 +1,73 @@
+package com.something.something.service;
+
+/**
+ * Fixed-size histogram of millisecond durations with log-spaced buckets.
+ * Each bucket is 2% wider than the one before it, so a percentile read back
+ * is within about 1% of the true value while the whole structure stays a
+ * few kilobytes no matter how many values are recorded. Durations of a year
+ * or more share the last bucket; the exact maximum is tracked separately.
+ */
+final class DwellHistogram {
+
+    private static final double GROWTH = 1.02;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final long MAX_TRACKED_MS = 366L * 24 * 60 * 60 * 1000;
+    // Bucket 0 holds sub-millisecond values; bucket i >= 1 holds
+    // [GROWTH^(i-1), GROWTH^i) milliseconds.
+    private static final int BUCKETS = 2 + (int) (Math.log(MAX_TRACKED_MS) / LOG_GROWTH);
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    void record(long millis) {
+        if (millis < 0) {
+            return;
+        }
+        counts[bucketOf(millis)]++;
+        total++;
+        max = Math.max(max, millis);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /**
+     * The value at quantile {@code q} (0 &lt; q &le; 1), reported as the
+     * geometric middle of its bucket and never above the recorded maximum.
+     */
+    long percentile(double q) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, midpoint(i));
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long millis) {
+        if (millis < 1) {
+            return 0;
+        }
+        int bucket = 1 + (int) (Math.log(millis) / LOG_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long midpoint(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return Math.round(Math.pow(GROWTH, bucket - 0.5));
+    }
+}
@@ -0,0 +1,165 @@
+package com.something.something.service;
+
+import com.something.something.model.CompressedText;
+import com.something.something.model.CompressedTextConverter;
+import com.something.something.model.CompressionReport;
+import com.something.something.model.ContentField;
+import com.something.something.repository.SoupEntryContentRepository;
+import com.something.something.repository.SoupEntryContentRepository.StoredBodies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Brings stored entry bodies in line with app.entries.compression: the
+ * backfill re-encodes every row written under the other setting, and the
+ * report shows what compression currently saves. Both walk
+ * soup_entry_contents by id, one bounded batch at a time.
+ */
+@Service
+public class EntryCompressionService {
+
+    private static final Logger log = LoggerFactory.getLogger(EntryCompressionService.class);
+    private static final UUID FIRST = new UUID(0, 0);
+    private static final List<ContentField> FIELDS = List.of(
+            ContentField.EXAMPLE_STARTER_CODE, ContentField.EXAMPLE_TESTS_CODE,
+            ContentField.EXAMPLE_SIMULATION_CODE, ContentField.ARTICLE_CONTENT);
+    private static final List<Function<StoredBodies, String>> COLUMNS = List.of(
+            StoredBodies::getExampleStarterCode, StoredBodies::getExampleTestsCode,
+            StoredBodies::getExampleSimulationCode, StoredBodies::getArticleContent);
+
+    private final SoupEntryContentRepository repository;
+    private final CompressedTextConverter converter;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    public record BackfillResult(long scanned, long rewritten) {
+    }
+
+    private record Batch(int scanned, int rewritten, UUID last) {
+    }
+
+    public EntryCompressionService(SoupEntryContentRepository repository, CompressedTextConverter converter,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.entries.compression.batch-size:200}") int batchSize) {
+        this.repository = repository;
+        this.converter = converter;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rewrites rows whose stored bodies differ from what a save would write
+     * now. Safe to re-run and to interrupt: each batch commits on its own
+     * and rows already in the current form are left alone.
+     */
+    public BackfillResult backfill() {
+        long scanned = 0;
+        long rewritten = 0;
+        UUID after = FIRST;
+        while (true) {
+            UUID from = after;
+            Batch batch = transactionTemplate.execute(status -> rewriteBatch(from));
+            if (batch.scanned() == 0) {
+                break;
+            }
+            scanned += batch.scanned();
+            rewritten += batch.rewritten();
+            after = batch.last();
+        }
+        log.info("Compression backfill ({}): rewrote {} of {} entry content rows",
+                converter.isEnabled() ? "compressing" : "decompressing", rewritten, scanned);
+        return new BackfillResult(scanned, rewritten);
+    }
+
+    public CompressionReport report() {
+        long[][] totals = new long[FIELDS.size()][5];
+        long rows = 0;
+        UUID after = FIRST;
+        while (true) {
+            UUID from = after;
+            List<StoredBodies> batch = readOnlyTransaction.execute(
+                    status -> repository.findStoredAfter(from, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (StoredBodies row : batch) {
+                for (int i = 0; i < FIELDS.size(); i++) {
+                    tally(COLUMNS.get(i).apply(row), totals[i]);
+                }
+            }
+            rows += batch.size();
+            after = batch.get(batch.size() - 1).getId();
+        }
+
+        List<CompressionReport.FieldStats> stats = new ArrayList<>();
+        for (int i = 0; i < FIELDS.size(); i++) {
+            long[] t = totals[i];
+            stats.add(new CompressionReport.FieldStats(FIELDS.get(i), t[0], t[1], t[2], t[3],
+                    t[2] == 0 ? 1.0 : (double) t[3] / t[2],
+                    t[1] == 0 ? 0.0 : t[4] / 1000.0 / t[1]));
+        }
+        return new CompressionReport(converter.isEnabled(), converter.getMinLength(), rows, stats);
+    }
+
+    // totals: values, compressed values, stored bytes, original bytes, decode nanos
+    private static void tally(String stored, long[] totals) {
+        if (stored == null) {
+            return;
+        }
+        totals[0]++;
+        totals[2] += utf8Length(stored);
+        if (CompressedText.isCompressed(stored)) {
+            long start = System.nanoTime();
+            String text = CompressedText.decode(stored);
+            totals[4] += System.nanoTime() - start;
+            totals[1]++;
+            totals[3] += utf8Length(text);
+        } else {
+            totals[3] += utf8Length(stored);
+        }
+    }
+
+    private Batch rewriteBatch(UUID after) {
+        List<StoredBodies> rows = repository.lockStoredAfter(after, batchSize);
+        if (rows.isEmpty()) {
+            return new Batch(0, 0, after);
+        }
+        int rewritten = 0;
+        for (StoredBodies row : rows) {
+            String starter = target(row.getExampleStarterCode());
+            String tests = target(row.getExampleTestsCode());
+            String simulation = target(row.getExampleSimulationCode());
+            String article = target(row.getArticleContent());
+            if (Objects.equals(starter, row.getExampleStarterCode())
+                    && Objects.equals(tests, row.getExampleTestsCode())
+                    && Objects.equals(simulation, row.getExampleSimulationCode())
+                    && Objects.equals(article, row.getArticleContent())) {
+                continue;
+            }
+            repository.writeStored(row.getId(), starter, tests, simulation, article);
+            rewritten++;
+        }
+        return new Batch(rows.size(), rewritten, rows.get(rows.size() - 1).getId());
+    }
+
+    private String target(String stored) {
+        return converter.convertToDatabaseColumn(converter.convertToEntityAttribute(stored));
+    }
+
+    private static long utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
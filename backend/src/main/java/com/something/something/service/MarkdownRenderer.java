@@ -0,0 +1,37 @@
+package com.something.something.service;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles readings and task descriptions to HTML once at load time. Raw
+ * HTML in the markdown is escaped and link/image URLs with unsafe schemes
+ * are dropped, so the output can be inserted into the page as is.
+ */
+@Component
+public class MarkdownRenderer {
+
+    private final boolean enabled;
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .build();
+
+    public MarkdownRenderer(@Value("${app.content.prerender.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String render(String markdown) {
+        if (markdown == null) {
+            return null;
+        }
+        return renderer.render(parser.parse(markdown));
+    }
+}
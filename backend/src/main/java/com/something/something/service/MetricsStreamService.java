@@ -0,0 +1,215 @@
+package com.something.something.service;
+
+import com.something.something.model.SessionMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes funnel metrics to connected admin dashboards over SSE. A client
+ * gets a "snapshot" event when it connects, then at most one "delta" event
+ * per interval holding only the values that changed, as absolute numbers;
+ * a phase missing from a delta's quitDistribution did not change, and one
+ * that dropped out of it is sent as 0. Nothing is computed or sent while
+ * the funnel counter is unchanged, apart from a periodic keep-alive comment.
+ *
+ * Events are written on virtual threads, one send in flight per client. A
+ * client still busy with the previous event skips the delta and gets a
+ * fresh snapshot instead once it catches up.
+ */
+@Service
+public class MetricsStreamService {
+
+    private final SessionFunnelCounter counter;
+    private final JsonMapper jsonMapper;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final int maxClients;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by this: the metrics every client has been brought up to,
+    // and their JSON.
+    private SessionMetrics published;
+    private String publishedJson;
+    private long publishedChanges = -1;
+    private long lastSentAt;
+    private long sequence;
+
+    private static final class Client {
+        final SseEmitter emitter;
+        final AtomicBoolean busy = new AtomicBoolean();
+        volatile boolean stale = true;
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    public MetricsStreamService(SessionFunnelCounter counter, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            @Value("${app.metrics.stream.timeout:PT30M}") Duration timeout,
+            @Value("${app.metrics.stream.heartbeat:PT15S}") Duration heartbeat,
+            @Value("${app.metrics.stream.max-clients:50}") int maxClients) {
+        this.counter = counter;
+        this.jsonMapper = jsonMapper;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.maxClients = maxClients;
+        meterRegistry.gauge("metrics.stream.clients", clients, List::size);
+    }
+
+    /**
+     * Registers a dashboard and queues its first snapshot. Throws
+     * IllegalStateException when max-clients are already connected.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+
+        synchronized (this) {
+            if (clients.size() >= maxClients) {
+                throw new IllegalStateException("Too many metrics streams");
+            }
+            clients.add(client);
+            if (published == null) {
+                publishedChanges = counter.changeCount();
+                setPublished(counter.snapshot());
+            }
+            dispatch(client, null, sequence);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${app.metrics.stream.interval:PT1S}")
+    public synchronized void publish() {
+        if (clients.isEmpty()) {
+            // Start from a fresh snapshot when the next dashboard connects.
+            published = null;
+            return;
+        }
+        long now = System.nanoTime();
+        boolean heartbeatDue = now - lastSentAt >= heartbeat.toNanos();
+        // Read the change count before the snapshot: an update racing with
+        // it is then picked up again on the next run.
+        long changes = counter.changeCount();
+        Map<String, Object> delta = Map.of();
+        if (changes != publishedChanges) {
+            SessionMetrics current = counter.snapshot();
+            delta = diff(published, current);
+            setPublished(current);
+            publishedChanges = changes;
+        }
+        if (delta.isEmpty() && !heartbeatDue) {
+            return;
+        }
+
+        String deltaJson = delta.isEmpty() ? null : jsonMapper.writeValueAsString(delta);
+        long id = deltaJson == null ? sequence : ++sequence;
+        for (Client client : clients) {
+            dispatch(client, deltaJson, id);
+        }
+        lastSentAt = now;
+    }
+
+    @PreDestroy
+    public void close() {
+        clients.forEach(client -> client.emitter.complete());
+        senders.shutdown();
+    }
+
+    private void setPublished(SessionMetrics metrics) {
+        published = metrics;
+        publishedJson = jsonMapper.writeValueAsString(metrics);
+    }
+
+    // Sends the snapshot to stale clients, the delta (or a keep-alive comment
+    // when there is none) to the rest. Called with the lock held.
+    private void dispatch(Client client, String deltaJson, long id) {
+        if (!client.busy.compareAndSet(false, true)) {
+            client.stale = true;
+            return;
+        }
+        String snapshotJson = client.stale ? publishedJson : null;
+        client.stale = false;
+        senders.execute(() -> {
+            try {
+                if (snapshotJson != null) {
+                    send(client, "snapshot", snapshotJson, id);
+                } else if (deltaJson == null) {
+                    client.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    send(client, "delta", deltaJson, id);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Disconnected or already completed.
+                clients.remove(client);
+                client.emitter.completeWithError(e);
+            } finally {
+                client.busy.set(false);
+            }
+        });
+    }
+
+    private static void send(Client client, String name, String json, long id) throws IOException {
+        client.emitter.send(SseEmitter.event()
+                .name(name)
+                .id(Long.toString(id))
+                .data(json, MediaType.APPLICATION_JSON));
+    }
+
+    private static Map<String, Object> diff(SessionMetrics before, SessionMetrics after) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (before.totalSessions() != after.totalSessions()) {
+            delta.put("totalSessions", after.totalSessions());
+        }
+        Map<String, Long> phases = diff(before.sessionsByPhase(), after.sessionsByPhase());
+        if (!phases.isEmpty()) {
+            delta.put("sessionsByPhase", phases);
+        }
+        Map<String, Long> quits = diff(before.quitDistribution(), after.quitDistribution());
+        if (!quits.isEmpty()) {
+            delta.put("quitDistribution", quits);
+        }
+        if (before.completedToFork() != after.completedToFork()) {
+            delta.put("completedToFork", after.completedToFork());
+        }
+        if (before.totalExited() != after.totalExited()) {
+            delta.put("totalExited", after.totalExited());
+        }
+        return delta;
+    }
+
+    private static Map<String, Long> diff(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> changed = new LinkedHashMap<>();
+        Set<String> keys = new LinkedHashSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        for (String key : keys) {
+            long value = after.getOrDefault(key, 0L);
+            if (!Objects.equals(before.getOrDefault(key, 0L), value)) {
+                changed.put(key, value);
+            }
+        }
+        return changed;
+    }
+}
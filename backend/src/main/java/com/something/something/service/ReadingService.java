@@ -1,72 +1,90 @@
 package com.something.something.service;
 
 import com.something.something.model.Reading;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import com.something.something.web.PreparedJson;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
 public class ReadingService {
 
-    private final List<Reading> readings = new ArrayList<>();
-    private final Map<String, Reading> readingsById = new LinkedHashMap<>();
+    // Parsed and serialized once per file; see ContentLibrary for reloads.
+    private final ContentLibrary<Reading> library;
+    private final ContentDirectoryWatcher watcher;
+
+    public ReadingService(JsonMapper jsonMapper, ContentDirectoryWatcher watcher, MarkdownRenderer markdown) {
+        this.library = new ContentLibrary<>("readings", ReadingService::parse,
+                markdown.isEnabled() ? reading -> render(reading, markdown) : null, jsonMapper);
+        this.watcher = watcher;
+    }
 
     @PostConstruct
     public void loadReadings() throws IOException {
-        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-        Resource[] resources = resolver.getResources("classpath:readings/*.md");
-
-        Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
-
-        for (Resource resource : resources) {
-            String filename = resource.getFilename();
-            if (filename == null)
-                continue;
-
-            String content = resource.getContentAsString(StandardCharsets.UTF_8);
-            String id = filename.replace(".md", "");
-
-            // Parse front matter
-            String title = "";
-            String summary = "";
-            String category = "";
-            String markdownBody = content;
-
-            if (content.startsWith("---")) {
-                int endIndex = content.indexOf("---", 3);
-                if (endIndex > 0) {
-                    String frontMatter = content.substring(3, endIndex).trim();
-                    markdownBody = content.substring(endIndex + 3).trim();
-
-                    for (String line : frontMatter.split("\n")) {
-                        line = line.trim();
-                        if (line.startsWith("title:")) {
-                            title = line.substring(6).trim();
-                        } else if (line.startsWith("summary:")) {
-                            summary = line.substring(8).trim();
-                        } else if (line.startsWith("category:")) {
-                            category = line.substring(9).trim();
-                        }
+        // Watch before loading, so a file changed during the load is
+        // reloaded once the watcher starts.
+        watcher.register(library);
+        library.load(watcher.getContentRoot());
+    }
+
+    static Reading parse(String id, String content) {
+        // Parse front matter
+        String title = "";
+        String summary = "";
+        String category = "";
+        String markdownBody = content;
+
+        if (content.startsWith("---")) {
+            int endIndex = content.indexOf("---", 3);
+            if (endIndex > 0) {
+                String frontMatter = content.substring(3, endIndex).trim();
+                markdownBody = content.substring(endIndex + 3).trim();
+
+                for (String line : frontMatter.split("\n")) {
+                    line = line.trim();
+                    if (line.startsWith("title:")) {
+                        title = line.substring(6).trim();
+                    } else if (line.startsWith("summary:")) {
+                        summary = line.substring(8).trim();
+                    } else if (line.startsWith("category:")) {
+                        category = line.substring(9).trim();
                     }
                 }
             }
-
-            Reading reading = new Reading(id, title, summary, markdownBody, category);
-            readings.add(reading);
-            readingsById.put(id, reading);
         }
+
+        return new Reading(id, title, summary, markdownBody, category);
+    }
+
+    // The rendered form replaces the markdown source rather than adding to it.
+    static Reading render(Reading reading, MarkdownRenderer markdown) {
+        Reading rendered = new Reading(reading.getId(), reading.getTitle(), reading.getSummary(),
+                null, reading.getCategory());
+        rendered.setHtmlContent(markdown.render(reading.getMarkdownContent()));
+        return rendered;
+    }
+
+    /** See {@link ContentLibrary#addListener}. */
+    public void addListener(ContentLibrary.Listener<Reading> listener) {
+        library.addListener(listener);
     }
 
     public List<Reading> getAllReadings() {
-        return Collections.unmodifiableList(readings);
+        return library.getAll();
     }
 
     public Optional<Reading> getReading(String id) {
-        return Optional.ofNullable(readingsById.get(id));
+        return library.get(id);
+    }
+
+    public PreparedJson getAllReadingsJson(boolean html) {
+        return library.getAllJson(html);
+    }
+
+    public Optional<PreparedJson> getReadingJson(String id, boolean html) {
+        return library.getJson(id, html);
     }
 }
@@ -0,0 +1,255 @@
+package com.something.something.service;
+
+import com.something.something.model.SearchHit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Inverted index over short documents, ranked with BM25. Title words count
+ * {@value #TITLE_WEIGHT} times. The last query word also matches as a
+ * prefix, at half weight, so results follow the user's typing.
+ *
+ * Documents are added, replaced and removed one at a time; searches run
+ * concurrently under a read lock and never see a half-indexed document.
+ */
+final class SearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int SNIPPET_BEFORE = 60;
+    private static final int SNIPPET_AFTER = 140;
+    private static final int SNIPPET_TERMS = 8;
+
+    private record Key(SearchHit.Kind kind, String id) {
+    }
+
+    private record Document(Key key, String title, String text, String lowerText, int length,
+            Map<String, Integer> termFrequencies) {
+    }
+
+    record Result(int total, List<SearchHit> hits) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Key, Document> documents = new HashMap<>();
+    // Sorted so a prefix maps to a contiguous range of terms.
+    private final TreeMap<String, Map<Key, Integer>> postings = new TreeMap<>();
+    private long totalLength;
+
+    /** Adds the document, replacing any previous one with the same kind and id. */
+    void put(SearchHit.Kind kind, String id, String title, String text) {
+        Key key = new Key(kind, id);
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        String plain = text.replaceAll("\\s+", " ").trim();
+        Document document = new Document(key, title, plain, plain.toLowerCase(Locale.ROOT), length,
+                Map.copyOf(frequencies));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            documents.put(key, document);
+            totalLength += length;
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, tf));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(SearchHit.Kind kind, String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(new Key(kind, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked hits {@code offset} to {@code offset + limit} among documents
+     * whose kind passes {@code kinds}, plus the total number of matches.
+     */
+    Result search(String query, Predicate<SearchHit.Kind> kinds, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new Result(0, List.of());
+        }
+        String last = terms.get(terms.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            int n = documents.size();
+            double averageLength = n == 0 ? 1 : (double) totalLength / n;
+            Map<Key, Double> scores = new HashMap<>();
+            Set<String> matched = new LinkedHashSet<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                score(term, 1.0, kinds, n, averageLength, scores, matched);
+            }
+            SortedMap<String, Map<Key, Integer>> expansions = postings.subMap(last, last + Character.MAX_VALUE);
+            int expanded = 0;
+            for (String term : expansions.keySet()) {
+                if (term.equals(last) || terms.contains(term)) {
+                    continue;
+                }
+                if (expanded++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                score(term, PREFIX_WEIGHT, kinds, n, averageLength, scores, matched);
+            }
+
+            Comparator<Map.Entry<Key, Double>> byScore = Map.Entry.<Key, Double>comparingByValue()
+                    .thenComparing(e -> e.getKey().id(), Comparator.reverseOrder());
+            int keep = offset + limit;
+            PriorityQueue<Map.Entry<Key, Double>> top = new PriorityQueue<>(byScore);
+            for (Map.Entry<Key, Double> entry : scores.entrySet()) {
+                top.add(entry);
+                if (top.size() > keep) {
+                    top.poll();
+                }
+            }
+            List<Map.Entry<Key, Double>> ranked = new ArrayList<>(top);
+            ranked.sort(byScore.reversed());
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                Document document = documents.get(ranked.get(i).getKey());
+                hits.add(new SearchHit(document.key().kind(), document.key().id(), document.title(),
+                        snippet(document, matched), ranked.get(i).getValue()));
+            }
+            return new Result(scores.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock.
+    private void score(String term, double weight, Predicate<SearchHit.Kind> kinds, int n, double averageLength,
+            Map<Key, Double> scores, Set<String> matched) {
+        Map<Key, Integer> posting = postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        matched.add(term);
+        double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<Key, Integer> entry : posting.entrySet()) {
+            Key key = entry.getKey();
+            if (!kinds.test(key.kind())) {
+                continue;
+            }
+            int tf = entry.getValue();
+            double norm = 1 - B + B * documents.get(key).length() / averageLength;
+            scores.merge(key, weight * idf * tf * (K1 + 1) / (tf + K1 * norm), Double::sum);
+        }
+    }
+
+    // Caller holds the write lock.
+    private void removeLocked(Key key) {
+        Document old = documents.remove(key);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length();
+        for (String term : old.termFrequencies().keySet()) {
+            Map<Key, Integer> posting = postings.get(term);
+            posting.remove(key);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // A window of the text around the earliest matched word, or its start.
+    // Query words come first in matched; only the first few are looked for.
+    private static String snippet(Document document, Set<String> matched) {
+        String text = document.text();
+        int at = -1;
+        int tried = 0;
+        for (String term : matched) {
+            if (tried++ == SNIPPET_TERMS) {
+                break;
+            }
+            int found = indexOfWord(document.lowerText(), term);
+            if (found >= 0 && (at < 0 || found < at)) {
+                at = found;
+            }
+        }
+        // Lower-casing can change the length of a few characters.
+        at = Math.min(Math.max(at, 0), text.length());
+        int start = Math.max(0, at - SNIPPET_BEFORE);
+        int end = Math.min(text.length(), at + SNIPPET_AFTER);
+        if (start > 0) {
+            int space = text.indexOf(' ', start);
+            start = space >= 0 && space < at ? space + 1 : start;
+        }
+        if (end < text.length()) {
+            int space = text.lastIndexOf(' ', end);
+            end = space > at ? space : end;
+        }
+        return (start > 0 ? "…" : "") + text.substring(start, end) + (end < text.length() ? "…" : "");
+    }
+
+    private static int indexOfWord(String lowerText, String term) {
+        int from = 0;
+        while (true) {
+            int found = lowerText.indexOf(term, from);
+            if (found <= 0 || !Character.isLetterOrDigit(lowerText.charAt(found - 1))) {
+                return found;
+            }
+            from = found + 1;
+        }
+    }
+
+    /** Lower-cased runs of letters and digits, two characters or longer. */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start >= 2) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
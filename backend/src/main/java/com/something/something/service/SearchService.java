@@ -0,0 +1,110 @@
+package com.something.something.service;
+
+import com.something.something.model.Reading;
+import com.something.something.model.SearchHit;
+import com.something.something.model.SearchResults;
+import com.something.something.model.SoupEntry;
+import com.something.something.model.SoupStatus;
+import com.something.something.model.Task;
+import com.something.something.repository.SoupEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over readings, tasks and published entries, served from
+ * an in-memory index. Readings and tasks are indexed as their libraries
+ * load and reload; SoupEntryService re-indexes an entry whenever its public
+ * version changes.
+ */
+@Service
+public class SearchService {
+
+    public static final int MAX_LIMIT = 50;
+
+    // Markdown that would only clutter snippets: links keep their text.
+    private static final Pattern LINK = Pattern.compile("!?\\[([^\\]]*)]\\([^)]*\\)");
+    private static final Pattern EMPHASIS = Pattern.compile("[*_`~]+");
+    private static final Pattern BLOCK_MARKUP = Pattern.compile("[#>|]+");
+
+    private final SearchIndex index = new SearchIndex();
+    private final ReadingService readingService;
+    private final TaskService taskService;
+    private final SoupEntryRepository entryRepository;
+    private final Timer searchTimer;
+
+    public SearchService(ReadingService readingService, TaskService taskService,
+            SoupEntryRepository entryRepository, MeterRegistry meterRegistry) {
+        this.readingService = readingService;
+        this.taskService = taskService;
+        this.entryRepository = entryRepository;
+        this.searchTimer = meterRegistry.timer("search.query");
+        meterRegistry.gauge("search.documents", index, SearchIndex::size);
+    }
+
+    @PostConstruct
+    public void buildIndex() {
+        readingService.addListener((updated, removed) -> {
+            updated.values().forEach(this::indexReading);
+            removed.forEach(id -> index.remove(SearchHit.Kind.READING, id));
+        });
+        taskService.addListener((updated, removed) -> {
+            updated.values().forEach(this::indexTask);
+            removed.forEach(id -> index.remove(SearchHit.Kind.TASK, id));
+        });
+        entryRepository.findPublishedWithContent().forEach(this::indexEntry);
+    }
+
+    /** Indexes a published entry, or drops it from the index if it is not published. */
+    public void indexEntry(SoupEntry entry) {
+        if (entry.getStatus() != SoupStatus.PUBLISHED) {
+            index.remove(SearchHit.Kind.ENTRY, entry.getSlug());
+            return;
+        }
+        index.put(SearchHit.Kind.ENTRY, entry.getSlug(), entry.getTitle(), join(
+                entry.getDescription(),
+                entry.getExampleDescription(),
+                entry.getExplanationAssumption(),
+                entry.getExplanationInvariant(),
+                entry.getExplanationMachineBehavior(),
+                entry.getArticleContent()));
+    }
+
+    /**
+     * Hits ranked by relevance, restricted to {@code kinds}. Callers leave
+     * READING out for sessions that have not unlocked the readings.
+     */
+    public SearchResults search(String query, Set<SearchHit.Kind> kinds, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("offset must be >= 0 and limit between 1 and " + MAX_LIMIT);
+        }
+        SearchIndex.Result result = searchTimer.record(() -> index.search(query, kinds::contains, offset, limit));
+        return new SearchResults(query, result.total(), offset, result.hits());
+    }
+
+    private void indexReading(Reading reading) {
+        index.put(SearchHit.Kind.READING, reading.getId(), reading.getTitle(),
+                join(reading.getSummary(), reading.getCategory(), reading.getMarkdownContent()));
+    }
+
+    private void indexTask(Task task) {
+        index.put(SearchHit.Kind.TASK, task.getId(), task.getTitle(), join(task.getDescription()));
+    }
+
+    private static String join(String... parts) {
+        String text = Stream.of(parts).filter(Objects::nonNull).collect(Collectors.joining("\n"));
+        text = LINK.matcher(text).replaceAll("$1");
+        text = EMPHASIS.matcher(text).replaceAll("");
+        return BLOCK_MARKUP.matcher(text).replaceAll(" ");
+    }
+}
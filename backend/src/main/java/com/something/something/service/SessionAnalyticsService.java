@@ -0,0 +1,109 @@
+package com.something.something.service;
+
+import com.something.something.model.DwellReport;
+import com.something.something.model.Phase;
+import com.something.something.model.PhaseDwell;
+import com.something.something.model.SessionTimeline;
+import com.something.something.repository.UserSessionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class SessionAnalyticsService {
+
+    // Phases whose entry is timestamped, in funnel order. READINGS has no
+    // timestamp of its own, so time spent there is counted from the Fork.
+    private static final List<Phase> TIMED_PHASES = List.of(
+            Phase.HAZARD_WARNING, Phase.COMFORT_BAIT, Phase.HIDDEN_FAILURE, Phase.REVEAL, Phase.FORK);
+
+    private final UserSessionRepository repository;
+    private final ObjectProvider<WriteBehindSessionStore> writeBehind;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SessionAnalyticsService(UserSessionRepository repository,
+            ObjectProvider<WriteBehindSessionStore> writeBehind, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.writeBehind = writeBehind;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Dwell-time percentiles for every phase-to-phase step taken by sessions
+     * created in [from, to): each advance through the funnel, and the time
+     * from entering a phase to exiting from it. Rows are streamed into
+     * fixed-size histograms, so memory does not grow with the window.
+     */
+    public DwellReport dwellTimes(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        writeBehind.ifAvailable(WriteBehindSessionStore::flush);
+
+        Map<Phase, DwellHistogram> advanced = new EnumMap<>(Phase.class);
+        Map<Phase, DwellHistogram> exited = new EnumMap<>(Phase.class);
+        for (Phase phase : TIMED_PHASES) {
+            advanced.put(phase, new DwellHistogram());
+            exited.put(phase, new DwellHistogram());
+        }
+        exited.put(Phase.READINGS, new DwellHistogram());
+
+        long sessions = readOnlyTransaction.execute(status -> {
+            long seen = 0;
+            try (Stream<SessionTimeline> rows = repository.streamTimelines(from, to)) {
+                for (SessionTimeline row : (Iterable<SessionTimeline>) rows::iterator) {
+                    record(row, advanced, exited);
+                    seen++;
+                }
+            }
+            return seen;
+        });
+
+        List<PhaseDwell> transitions = new ArrayList<>();
+        for (Phase phase : TIMED_PHASES) {
+            if (phase != Phase.FORK) {
+                transitions.add(toDwell(phase, phase.next(), advanced.get(phase)));
+            }
+        }
+        for (Map.Entry<Phase, DwellHistogram> entry : exited.entrySet()) {
+            transitions.add(toDwell(entry.getKey(), Phase.EXITED, entry.getValue()));
+        }
+        return new DwellReport(from, to, sessions, transitions);
+    }
+
+    private static void record(SessionTimeline row, Map<Phase, DwellHistogram> advanced,
+            Map<Phase, DwellHistogram> exited) {
+        Instant[] entered = {
+                row.createdAt(), row.hazardAcceptedAt(), row.codeSubmittedAt(),
+                row.failureRevealedAt(), row.forkReachedAt() };
+        for (int i = 0; i + 1 < entered.length; i++) {
+            recordBetween(advanced.get(TIMED_PHASES.get(i)), entered[i], entered[i + 1]);
+        }
+        Phase quit = row.quitPhase();
+        if (quit != null && row.exitedAt() != null && exited.containsKey(quit)) {
+            int index = quit == Phase.READINGS ? entered.length - 1 : TIMED_PHASES.indexOf(quit);
+            recordBetween(exited.get(quit), entered[index], row.exitedAt());
+        }
+    }
+
+    private static void recordBetween(DwellHistogram histogram, Instant start, Instant end) {
+        if (start != null && end != null) {
+            histogram.record(Duration.between(start, end).toMillis());
+        }
+    }
+
+    private static PhaseDwell toDwell(Phase from, Phase to, DwellHistogram histogram) {
+        return new PhaseDwell(from, to, histogram.count(),
+                histogram.percentile(0.50), histogram.percentile(0.90), histogram.percentile(0.99),
+                histogram.max());
+    }
+}
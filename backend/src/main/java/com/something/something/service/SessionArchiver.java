@@ -0,0 +1,129 @@
+package com.something.something.service;
+
+import com.something.something.model.Phase;
+import com.something.something.model.SessionDailyRollup;
+import com.something.something.model.UserSession;
+import com.something.something.repository.SessionDailyRollupRepository;
+import com.something.something.repository.UserSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Folds sessions older than the retention period into per-day rollups and
+ * deletes them, one bounded batch per transaction. Only sessions that have
+ * exited, or have not moved for the whole retention period, are archived,
+ * so nobody is part-way through a session that disappears. Funnel totals
+ * are unchanged because admin metrics read the rollups alongside live rows;
+ * dwell analytics only covers sessions that are still live.
+ */
+@Service
+public class SessionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionArchiver.class);
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final UserSessionRepository sessionRepository;
+    private final SessionDailyRollupRepository rollupRepository;
+    private final ObjectProvider<WriteBehindSessionStore> writeBehind;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    private record RollupKey(LocalDate day, Phase currentPhase, Phase quitPhase) {
+    }
+
+    public SessionArchiver(UserSessionRepository sessionRepository, SessionDailyRollupRepository rollupRepository,
+            ObjectProvider<WriteBehindSessionStore> writeBehind, TransactionTemplate transactionTemplate,
+            @Value("${app.sessions.archive.retention:P90D}") Duration retention,
+            @Value("${app.sessions.archive.batch-size:1000}") int batchSize) {
+        this.sessionRepository = sessionRepository;
+        this.rollupRepository = rollupRepository;
+        this.writeBehind = writeBehind;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.sessions.archive.cron:0 30 3 * * *}", zone = "UTC")
+    public void archive() {
+        Instant cutoff = Instant.now().minus(retention);
+        // Pending transitions must reach the table before it is rolled up.
+        writeBehind.ifAvailable(WriteBehindSessionStore::flush);
+
+        long archived = 0;
+        int batch;
+        do {
+            batch = archiveBatchRetrying(cutoff);
+            archived += batch;
+        } while (batch == batchSize);
+
+        if (archived > 0) {
+            log.info("Archived {} sessions created before {}", archived, cutoff);
+        }
+    }
+
+    // Two archivers can both find a day's rollup row missing and insert it;
+    // the unique key rejects the second insert, and the rolled-back batch
+    // then adds to the row the first one created.
+    private int archiveBatchRetrying(Instant cutoff) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> archiveBatch(cutoff));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_BATCH_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Rollup row created concurrently; retrying the archive batch");
+            }
+        }
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<UserSession> sessions = sessionRepository.findArchivable(cutoff, Limit.of(batchSize));
+        if (sessions.isEmpty()) {
+            return 0;
+        }
+
+        Map<RollupKey, long[]> counts = new HashMap<>();
+        for (UserSession session : sessions) {
+            RollupKey key = new RollupKey(LocalDate.ofInstant(session.getCreatedAt(), ZoneOffset.UTC),
+                    session.getCurrentPhase(), session.getQuitPhase());
+            long[] c = counts.computeIfAbsent(key, k -> new long[3]);
+            c[0]++;
+            if (session.getForkReachedAt() != null) {
+                c[1]++;
+            }
+            if (session.getExitedAt() != null) {
+                c[2]++;
+            }
+        }
+        counts.forEach((key, c) -> {
+            if (rollupRepository.addCounts(key.day(), key.currentPhase(), key.quitPhase(), c[0], c[1], c[2]) == 0) {
+                SessionDailyRollup rollup = new SessionDailyRollup(key.day(), key.currentPhase(), key.quitPhase());
+                rollup.add(c[0], c[1], c[2]);
+                rollupRepository.saveAndFlush(rollup);
+            }
+        });
+
+        List<UUID> ids = sessions.stream().map(UserSession::getId).toList();
+        sessionRepository.deleteAllByIdInBatch(ids);
+        writeBehind.ifAvailable(store -> store.discard(ids));
+        return sessions.size();
+    }
+}
@@ -0,0 +1,70 @@
+package com.something.something.service;
+
+import com.something.something.model.SessionExportRow;
+import com.something.something.repository.UserSessionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+@Service
+public class SessionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UserSessionRepository repository;
+    private final ObjectProvider<WriteBehindSessionStore> writeBehind;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonMapper jsonMapper;
+
+    public SessionExportService(UserSessionRepository repository,
+            ObjectProvider<WriteBehindSessionStore> writeBehind, TransactionTemplate transactionTemplate,
+            JsonMapper jsonMapper) {
+        this.repository = repository;
+        this.writeBehind = writeBehind;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Writes every session created in [from, to) to {@code out} as
+     * newline-delimited JSON, oldest first. Rows are read through a database
+     * cursor and written as they arrive, so neither the result set nor the
+     * response is ever held in memory. Returns the number of rows written.
+     */
+    public long writeNdjson(Instant from, Instant to, OutputStream out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        writeBehind.ifAvailable(WriteBehindSessionStore::flush);
+
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        try {
+            long written = readOnlyTransaction.execute(status -> {
+                long rows = 0;
+                try (Stream<SessionExportRow> stream = repository.streamForExport(from, to)) {
+                    for (SessionExportRow row : (Iterable<SessionExportRow>) stream::iterator) {
+                        buffered.write(jsonMapper.writeValueAsBytes(row));
+                        buffered.write('\n');
+                        rows++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return rows;
+            });
+            buffered.flush();
+            return written;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
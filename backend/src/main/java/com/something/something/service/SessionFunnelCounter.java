@@ -0,0 +1,178 @@
+package com.something.something.service;
+
+import com.something.something.model.Phase;
+import com.something.something.model.SessionMetrics;
+import com.something.something.model.UserSession;
+import com.something.something.repository.PhaseFunnelCount;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory mirror of the session funnel so admin metrics can be served
+ * without touching user_sessions. Updated by SessionService on every
+ * create/advance/exit; corrected from the database at startup and
+ * periodically by SessionMetricsService (e.g. for writes from another node).
+ * A correction moves the counters by the difference between the database
+ * and a baseline captured before it was read, so updates made while the
+ * query runs are kept. The correction is only eventually consistent: a
+ * session is committed before it is recorded here, so one committed after
+ * the baseline but before the query's snapshot is counted twice until the
+ * next reconcile. Every update also bumps a change count, so readers can
+ * tell cheaply whether anything moved since they last looked.
+ */
+@Component
+public class SessionFunnelCounter {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLongArray byPhase = new AtomicLongArray(PHASES.length);
+    private final AtomicLongArray byQuitPhase = new AtomicLongArray(PHASES.length);
+    private final AtomicLong reachedFork = new AtomicLong();
+    private final AtomicLong exited = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    // Updates share it; capture and correct take it exclusively, so they
+    // never see a transition half applied.
+    private final StampedLock updates = new StampedLock();
+
+    /** The parts of a session that the funnel counts. */
+    public record Position(Phase phase, Phase quitPhase, boolean reachedFork, boolean exited) {
+
+        public static Position of(UserSession session) {
+            return new Position(session.getCurrentPhase(), session.getQuitPhase(),
+                    session.getForkReachedAt() != null, session.getExitedAt() != null);
+        }
+    }
+
+    public void recordCreated(UserSession session) {
+        long stamp = updates.readLock();
+        try {
+            total.incrementAndGet();
+            add(Position.of(session), 1);
+        } finally {
+            updates.unlockRead(stamp);
+        }
+        changes.incrementAndGet();
+    }
+
+    public void recordTransition(Position from, Position to) {
+        if (from.equals(to)) {
+            return;
+        }
+        long stamp = updates.readLock();
+        try {
+            add(from, -1);
+            add(to, 1);
+        } finally {
+            updates.unlockRead(stamp);
+        }
+        changes.incrementAndGet();
+    }
+
+    /** The counts with no update in progress: the baseline for {@link #correct}. */
+    public SessionMetrics capture() {
+        long stamp = updates.writeLock();
+        try {
+            return snapshot();
+        } finally {
+            updates.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Moves every counter by {@code actual - baseline}, where the baseline was
+     * captured before {@code actual} was read from the database. Updates
+     * recorded since the baseline are kept, including any already in
+     * {@code actual}; those stay counted twice until the next correction.
+     */
+    public void correct(SessionMetrics baseline, SessionMetrics actual) {
+        if (baseline.equals(actual)) {
+            return;
+        }
+        long stamp = updates.writeLock();
+        try {
+            total.addAndGet(actual.totalSessions() - baseline.totalSessions());
+            reachedFork.addAndGet(actual.completedToFork() - baseline.completedToFork());
+            exited.addAndGet(actual.totalExited() - baseline.totalExited());
+            for (Phase phase : PHASES) {
+                String name = phase.name();
+                byPhase.addAndGet(phase.ordinal(), actual.sessionsByPhase().getOrDefault(name, 0L)
+                        - baseline.sessionsByPhase().getOrDefault(name, 0L));
+                byQuitPhase.addAndGet(phase.ordinal(), actual.quitDistribution().getOrDefault(name, 0L)
+                        - baseline.quitDistribution().getOrDefault(name, 0L));
+            }
+        } finally {
+            updates.unlockWrite(stamp);
+        }
+        changes.incrementAndGet();
+    }
+
+    /** The metrics the grouped funnel rows add up to. */
+    public static SessionMetrics summarize(List<PhaseFunnelCount> rows) {
+        long[] phases = new long[PHASES.length];
+        long[] quitPhases = new long[PHASES.length];
+        long sessions = 0;
+        long fork = 0;
+        long exits = 0;
+
+        for (PhaseFunnelCount row : rows) {
+            sessions += row.getSessions();
+            fork += row.getReachedFork();
+            exits += row.getExited();
+            phases[row.getCurrentPhase().ordinal()] += row.getSessions();
+            if (row.getQuitPhase() != null) {
+                quitPhases[row.getQuitPhase().ordinal()] += row.getSessions();
+            }
+        }
+
+        return metrics(sessions, phases, quitPhases, fork, exits);
+    }
+
+    /** Increases whenever the counts may have changed; never decreases. */
+    public long changeCount() {
+        return changes.get();
+    }
+
+    public SessionMetrics snapshot() {
+        long[] phases = new long[PHASES.length];
+        long[] quitPhases = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            phases[i] = byPhase.get(i);
+            quitPhases[i] = byQuitPhase.get(i);
+        }
+        return metrics(total.get(), phases, quitPhases, reachedFork.get(), exited.get());
+    }
+
+    private static SessionMetrics metrics(long sessions, long[] phases, long[] quitPhases, long fork, long exits) {
+        // Every phase is listed, even at zero; quit phases only when present.
+        Map<String, Long> sessionsByPhase = new LinkedHashMap<>();
+        Map<String, Long> quitDistribution = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            sessionsByPhase.put(phase.name(), phases[phase.ordinal()]);
+            long quits = quitPhases[phase.ordinal()];
+            if (quits > 0) {
+                quitDistribution.put(phase.name(), quits);
+            }
+        }
+        return new SessionMetrics(sessions, sessionsByPhase, quitDistribution, fork, exits);
+    }
+
+    private void add(Position position, int delta) {
+        byPhase.addAndGet(position.phase().ordinal(), delta);
+        if (position.quitPhase() != null) {
+            byQuitPhase.addAndGet(position.quitPhase().ordinal(), delta);
+        }
+        if (position.reachedFork()) {
+            reachedFork.addAndGet(delta);
+        }
+        if (position.exited()) {
+            exited.addAndGet(delta);
+        }
+    }
+}
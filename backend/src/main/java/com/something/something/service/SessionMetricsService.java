@@ -0,0 +1,79 @@
+package com.something.something.service;
+
+import com.something.something.model.SessionMetrics;
+import com.something.something.repository.PhaseFunnelCount;
+import com.something.something.repository.SessionDailyRollupRepository;
+import com.something.something.repository.UserSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class SessionMetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionMetricsService.class);
+
+    private final UserSessionRepository repository;
+    private final SessionFunnelCounter counter;
+    private final SessionDailyRollupRepository rollupRepository;
+    private final ObjectProvider<WriteBehindSessionStore> writeBehind;
+    private final TransactionTemplate snapshotTransaction;
+
+    public SessionMetricsService(UserSessionRepository repository, SessionFunnelCounter counter,
+            SessionDailyRollupRepository rollupRepository, ObjectProvider<WriteBehindSessionStore> writeBehind,
+            TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.counter = counter;
+        this.rollupRepository = rollupRepository;
+        this.writeBehind = writeBehind;
+        this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PostConstruct
+    public void loadCounters() {
+        SessionMetrics baseline = counter.capture();
+        counter.correct(baseline, SessionFunnelCounter.summarize(loadFunnel()));
+    }
+
+    public SessionMetrics getMetrics() {
+        return counter.snapshot();
+    }
+
+    // The table is the source of truth. Only the drift between it and the
+    // counters as they were before the query is applied, so transitions
+    // recorded while the aggregate runs are kept.
+    @Scheduled(fixedDelayString = "${app.metrics.reconcile-interval:PT5M}",
+            initialDelayString = "${app.metrics.reconcile-interval:PT5M}")
+    public void reconcile() {
+        // Pending write-behind changes are already counted; push them out
+        // first so the table agrees with the counters.
+        writeBehind.ifAvailable(WriteBehindSessionStore::flush);
+        SessionMetrics before = counter.capture();
+        SessionMetrics actual = SessionFunnelCounter.summarize(loadFunnel());
+        if (!before.equals(actual)) {
+            log.info("Funnel counters drifted from user_sessions; corrected {} -> {}", before, actual);
+            counter.correct(before, actual);
+        }
+    }
+
+    // Live rows plus archived rollups, read from one snapshot so a batch
+    // being archived is counted exactly once.
+    private List<PhaseFunnelCount> loadFunnel() {
+        return snapshotTransaction.execute(status -> {
+            List<PhaseFunnelCount> rows = new ArrayList<>(repository.summarizeFunnel());
+            rows.addAll(rollupRepository.summarizeFunnel());
+            return rows;
+        });
+    }
+}
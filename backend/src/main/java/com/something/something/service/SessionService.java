@@ -3,41 +3,143 @@ package com.something.something.service;
 import com.something.something.model.Phase;
 import com.something.something.model.UserSession;
 import com.something.something.repository.UserSessionRepository;
+import com.something.something.service.SessionFunnelCounter.Position;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class SessionService {
 
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
     private final UserSessionRepository repository;
+    private final SessionFunnelCounter funnelCounter;
+    // Null unless app.sessions.write-behind.enabled=true.
+    private final WriteBehindSessionStore writeBehind;
+    // Sessions known to have reached the Fork. Phases never move back from
+    // there, so an entry can only go stale by expiring.
+    private final Cache<UUID, Boolean> unlockedSessions;
+    // Last state this instance saw of each recent session, so an advance
+    // can go straight to its conditional UPDATE. A copy gone stale because
+    // another instance moved the session costs a failed UPDATE, a re-read
+    // and a second UPDATE. Unused with write-behind.
+    private final Cache<UUID, UserSession> knownSessions;
+    private final MeterRegistry meterRegistry;
 
-    public SessionService(UserSessionRepository repository) {
+    public SessionService(UserSessionRepository repository, SessionFunnelCounter funnelCounter,
+            ObjectProvider<WriteBehindSessionStore> writeBehind, MeterRegistry meterRegistry,
+            @Value("${app.readings.unlock-cache.max-size:100000}") long unlockCacheSize,
+            @Value("${app.readings.unlock-cache.ttl:PT2H}") Duration unlockCacheTtl,
+            @Value("${app.sessions.known-cache.max-size:100000}") long knownCacheSize,
+            @Value("${app.sessions.known-cache.ttl:PT30M}") Duration knownCacheTtl) {
         this.repository = repository;
+        this.funnelCounter = funnelCounter;
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.unlockedSessions = Caffeine.newBuilder()
+                .maximumSize(unlockCacheSize)
+                .expireAfterAccess(unlockCacheTtl)
+                .recordStats()
+                .build();
+        this.knownSessions = Caffeine.newBuilder()
+                .maximumSize(knownCacheSize)
+                .expireAfterAccess(knownCacheTtl)
+                .recordStats()
+                .build();
+        this.meterRegistry = meterRegistry;
+        CaffeineCacheMetrics.monitor(meterRegistry, unlockedSessions, "readings.unlocked-sessions");
+        CaffeineCacheMetrics.monitor(meterRegistry, knownSessions, "sessions.known");
     }
 
     public UserSession createSession() {
-        UserSession session = new UserSession(UUID.randomUUID());
-        return repository.save(session);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            UserSession session = new UserSession(UUID.randomUUID());
+            if (writeBehind != null) {
+                session = writeBehind.create(session);
+            } else {
+                session = repository.save(session);
+                knownSessions.put(session.getId(), WriteBehindSessionStore.copyOf(session));
+            }
+            funnelCounter.recordCreated(session);
+            outcome = "success";
+            return session;
+        } finally {
+            sample.stop(meterRegistry.timer("sessions.create", "outcome", outcome));
+        }
     }
 
     public UserSession getSession(UUID id) {
-        return repository.findById(id)
+        if (writeBehind != null) {
+            return writeBehind.get(id);
+        }
+        UserSession session = repository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found: " + id));
+        remember(session);
+        return session;
     }
 
     public UserSession advancePhase(UUID id) {
+        if (writeBehind != null) {
+            return transition("advance", id, session -> {
+                Phase next = nextPhase(session.getCurrentPhase());
+                applyAdvance(session, next, Instant.now());
+            });
+        }
+        return timed("advance", tags -> advanceConditionally(id, tags));
+    }
+
+    public UserSession markExited(UUID id) {
+        return transition("exit", id, session -> {
+            session.setQuitPhase(session.getCurrentPhase());
+            session.setCurrentPhase(Phase.EXITED);
+            session.setExitedAt(Instant.now());
+        });
+    }
+
+    public boolean isReadingsUnlocked(UUID id) {
+        if (unlockedSessions.getIfPresent(id) != null) {
+            return true;
+        }
         UserSession session = getSession(id);
-        Phase current = session.getCurrentPhase();
-        Phase next = current.next();
+        rememberIfUnlocked(session);
+        return unlockedSessions.getIfPresent(id) != null;
+    }
+
+    private void remember(UserSession session) {
+        knownSessions.put(session.getId(), WriteBehindSessionStore.copyOf(session));
+        rememberIfUnlocked(session);
+    }
+
+    private void rememberIfUnlocked(UserSession session) {
+        Phase phase = session.getCurrentPhase();
+        if (phase == Phase.FORK || phase == Phase.READINGS || phase == Phase.EXITED) {
+            unlockedSessions.put(session.getId(), Boolean.TRUE);
+        }
+    }
 
+    private static Phase nextPhase(Phase current) {
+        Phase next = current.next();
         if (current == next) {
             throw new IllegalStateException("Cannot advance from terminal phase: " + current);
         }
+        return next;
+    }
 
-        Instant now = Instant.now();
-
+    private static void applyAdvance(UserSession session, Phase next, Instant now) {
         switch (next) {
             case COMFORT_BAIT -> session.setHazardAcceptedAt(now);
             case HIDDEN_FAILURE -> session.setCodeSubmittedAt(now);
@@ -46,16 +148,138 @@ public class SessionService {
             default -> {
             }
         }
-
         session.setCurrentPhase(next);
-        return repository.save(session);
     }
 
-    public UserSession markExited(UUID id) {
+    /**
+     * One conditional UPDATE instead of saving the whole entity, issued from
+     * the last known state without reading the row first when there is one.
+     * If that UPDATE matches nothing and no request on this instance has
+     * moved the session since, the copy was stale: the row is read and the
+     * UPDATE retried once from the phase it is actually in. Otherwise the
+     * session is gone (not found), or another request moved it first (a
+     * double click), in which case nothing is applied and the session is
+     * returned as that request left it.
+     */
+    private UserSession advanceConditionally(UUID id, TransitionTags tags) {
+        UserSession known = knownSessions.getIfPresent(id);
+        if (known != null) {
+            UserSession advanced = tryAdvance(WriteBehindSessionStore.copyOf(known), tags);
+            // remember() replaces the entry, so it is still the copy read
+            // above only if nothing here advanced the session meanwhile.
+            if (advanced != null || !knownSessions.asMap().remove(id, known)) {
+                return advanced != null ? advanced : conflict(id, tags);
+            }
+        }
+        UserSession advanced = tryAdvance(getSession(id), tags);
+        return advanced != null ? advanced : conflict(id, tags);
+    }
+
+    // Null when the row was not in the session's phase.
+    private UserSession tryAdvance(UserSession session, TransitionTags tags) {
+        Phase current = session.getCurrentPhase();
+        tags.from = current;
+        Phase next = nextPhase(current);
+        Instant now = Instant.now();
+        if (repository.advanceIfInPhase(session.getId(), current, next, now) == 0) {
+            return null;
+        }
+        Position from = Position.of(session);
+        applyAdvance(session, next, now);
+        session.setVersion(session.getVersion() + 1);
+        tags.to = next;
+        funnelCounter.recordTransition(from, Position.of(session));
+        remember(session);
+        return session;
+    }
+
+    private UserSession conflict(UUID id, TransitionTags tags) {
+        knownSessions.invalidate(id);
+        UserSession latest = getSession(id);
+        tags.to = latest.getCurrentPhase();
+        tags.outcome = "conflict";
+        rememberIfUnlocked(latest);
+        return latest;
+    }
+
+    /**
+     * Applies {@code change} to the session through the write-behind store,
+     * or as a versioned read-modify-write retried on conflicting updates.
+     */
+    private UserSession transition(String operation, UUID id, Consumer<UserSession> change) {
+        return timed(operation, tags -> {
+            Consumer<UserSession> tracked = session -> {
+                tags.from = session.getCurrentPhase();
+                change.accept(session);
+                tags.to = session.getCurrentPhase();
+            };
+            if (writeBehind != null) {
+                return applyInStore(id, tracked);
+            }
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return saveVersioned(id, tracked);
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt == MAX_SAVE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Records the call in the {@code sessions.<operation>} timer, tagged with
+     * the source and target phase and the outcome.
+     */
+    private UserSession timed(String operation, Function<TransitionTags, UserSession> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransitionTags tags = new TransitionTags();
+        try {
+            return action.apply(tags);
+        } catch (IllegalArgumentException e) {
+            tags.outcome = "not_found";
+            throw e;
+        } catch (IllegalStateException e) {
+            tags.outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            tags.outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("sessions." + operation,
+                    "from", tags.from != null ? tags.from.name() : "none",
+                    "to", tags.to != null ? tags.to.name() : "none",
+                    "outcome", tags.outcome));
+        }
+    }
+
+    private UserSession applyInStore(UUID id, Consumer<UserSession> change) {
+        // Runs under the session's lock in the store, so concurrent
+        // transitions for one session are applied in order.
+        UserSession updated = writeBehind.update(id, session -> {
+            Position from = Position.of(session);
+            change.accept(session);
+            funnelCounter.recordTransition(from, Position.of(session));
+        });
+        rememberIfUnlocked(updated);
+        return updated;
+    }
+
+    private UserSession saveVersioned(UUID id, Consumer<UserSession> change) {
         UserSession session = getSession(id);
-        session.setQuitPhase(session.getCurrentPhase());
-        session.setCurrentPhase(Phase.EXITED);
-        session.setExitedAt(Instant.now());
-        return repository.save(session);
+        Position from = Position.of(session);
+        change.accept(session);
+        UserSession saved = repository.save(session);
+        funnelCounter.recordTransition(from, Position.of(saved));
+        remember(saved);
+        return saved;
+    }
+
+    // Written by the transition, which may run under the store's lock.
+    private static final class TransitionTags {
+        Phase from;
+        Phase to;
+        String outcome = "success";
     }
 }
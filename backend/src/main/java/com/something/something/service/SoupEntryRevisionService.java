@@ -0,0 +1,122 @@
+package com.something.something.service;
+
+import com.something.something.model.ContentField;
+import com.something.something.model.ContentRevision;
+import com.something.something.model.RevisionSummary;
+import com.something.something.model.SoupEntryRevision;
+import com.something.something.repository.SoupEntryRevisionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Edit history of SoupEntry content fields. Each edit is stored as the
+ * changed middle of the text between an unchanged prefix and suffix, so a
+ * one-line fix to a long article costs one line. Every
+ * {@code snapshotInterval} revisions, and whenever a delta would not save
+ * much, the full value is stored instead, so rebuilding any revision reads
+ * at most {@code snapshotInterval} rows.
+ */
+@Service
+public class SoupEntryRevisionService {
+
+    private final SoupEntryRevisionRepository repository;
+    private final int snapshotInterval;
+
+    public SoupEntryRevisionService(SoupEntryRevisionRepository repository,
+            @Value("${app.entries.revisions.snapshot-interval:16}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("app.entries.revisions.snapshot-interval must be at least 1");
+        }
+        this.repository = repository;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Records that {@code field} changed from {@code previous}, last written
+     * at {@code previousAt}, to {@code next} at {@code at}. Call it in the
+     * transaction that saves the entry, after locking the entry row
+     * (SoupEntryRepository.findByIdForUpdate), so concurrent edits take
+     * revision numbers one after the other. A field with no history yet
+     * first gets its previous value as revision 1, dated {@code previousAt}
+     * (or {@code at} when that is unknown).
+     */
+    public void record(UUID entryId, ContentField field, String previous, Instant previousAt, String next,
+            Instant at) {
+        List<RevisionSummary> latest = repository.findLatest(entryId, field, Limit.of(1));
+        RevisionSummary head = latest.isEmpty() ? null : latest.get(0);
+        if (head == null && previous != null) {
+            Instant seededAt = previousAt != null ? previousAt : at;
+            repository.save(SoupEntryRevision.snapshot(entryId, field, 1, previous, seededAt));
+            head = new RevisionSummary(field, 1, 1, true, previous.length(), seededAt);
+        }
+        repository.save(encode(entryId, field, head, previous, next, at));
+    }
+
+    // The revision after head (null when the field has no history) that
+    // turns previous into next: a prefix/suffix delta, or a snapshot.
+    private SoupEntryRevision encode(UUID entryId, ContentField field, RevisionSummary head, String previous, String next,
+            Instant at) {
+        if (head == null) {
+            return SoupEntryRevision.snapshot(entryId, field, 1, next, at);
+        }
+        int revision = head.revision() + 1;
+        // A length mismatch means the column was changed outside this
+        // service, so a delta against it would not replay correctly.
+        if (previous == null || next == null
+                || !Objects.equals(head.length(), previous.length())
+                || revision - head.baseRevision() >= snapshotInterval) {
+            return SoupEntryRevision.snapshot(entryId, field, revision, next, at);
+        }
+
+        int shorter = Math.min(previous.length(), next.length());
+        int prefix = 0;
+        while (prefix < shorter && previous.charAt(prefix) == next.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(next.charAt(prefix - 1))) {
+            prefix--;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && previous.charAt(previous.length() - 1 - suffix) == next.charAt(next.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(next.charAt(next.length() - suffix))) {
+            suffix--;
+        }
+        String middle = next.substring(prefix, next.length() - suffix);
+
+        if (middle.length() * 2 > next.length()) {
+            return SoupEntryRevision.snapshot(entryId, field, revision, next, at);
+        }
+        return SoupEntryRevision.delta(entryId, field, revision, head.baseRevision(),
+                prefix, suffix, middle, next.length(), at);
+    }
+
+    /** Revision metadata for an entry, newest first; all fields when {@code field} is null. */
+    public List<RevisionSummary> listRevisions(UUID entryId, ContentField field) {
+        return repository.findSummaries(entryId,
+                field == null ? EnumSet.allOf(ContentField.class) : EnumSet.of(field));
+    }
+
+    /** Rebuilds a field's value as of {@code revision}. */
+    public ContentRevision getRevision(UUID entryId, ContentField field, int revision) {
+        List<SoupEntryRevision> chain = repository.findChain(entryId, field, revision);
+        if (chain.isEmpty()) {
+            throw new IllegalArgumentException("Revision not found: " + field + " " + revision);
+        }
+        String value = null;
+        for (SoupEntryRevision step : chain) {
+            value = step.applyTo(value);
+        }
+        SoupEntryRevision last = chain.get(chain.size() - 1);
+        return new ContentRevision(field, revision, last.getCreatedAt(), value);
+    }
+}
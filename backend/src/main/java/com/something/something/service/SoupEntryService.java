@@ -1,29 +1,95 @@
 package com.something.something.service;
 
+import com.something.something.model.ContentField;
+import com.something.something.model.ContentRevision;
+import com.something.something.model.EntryPage;
+import com.something.something.model.PublishedEntrySummary;
+import com.something.something.model.RevisionSummary;
 import com.something.something.model.SoupEntry;
+import com.something.something.model.SoupEntrySummary;
 import com.something.something.model.SoupStatus;
 import com.something.something.repository.SoupEntryRepository;
+import com.something.something.web.PreparedJson;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class SoupEntryService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Keyset that sorts after every real entry, used for the first page.
+    private static final Instant FIRST_PAGE_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+    private static final UUID FIRST_PAGE_ID = new UUID(0, 0);
+
     private final SoupEntryRepository repository;
 
-    public SoupEntryService(SoupEntryRepository repository) {
+    // Public listing, rebuilt on first read after any change to a published
+    // entry. The generation stops a read that raced an invalidation from
+    // putting a stale list back.
+    private volatile List<PublishedEntrySummary> publishedSummaries;
+    private final AtomicLong summariesGeneration = new AtomicLong();
+
+    // Serialized published entries by slug and updatedAt, weighed by payload
+    // bytes. Each read looks up the entry's current updatedAt first, so a
+    // change made elsewhere (another instance, a SQL fix that bumps
+    // updated_at) is never served from here. Local writes also evict the
+    // slug's renders to free the space early.
+    private final Cache<RenderKey, PreparedJson> publishedBySlug;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final SoupEntryRevisionService revisions;
+    private final SearchService search;
+    private final TransactionTemplate transactionTemplate;
+
+    public SoupEntryService(SoupEntryRepository repository, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            SoupEntryRevisionService revisions, SearchService search, TransactionTemplate transactionTemplate,
+            @Value("${app.entries.render-cache.max-bytes:67108864}") long renderCacheMaxBytes) {
         this.repository = repository;
+        this.revisions = revisions;
+        this.search = search;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.publishedBySlug = Caffeine.newBuilder()
+                .maximumWeight(renderCacheMaxBytes)
+                .weigher((RenderKey key, PreparedJson json) -> json.size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, publishedBySlug, "entries.published-by-slug");
     }
 
     public SoupEntry createEntry(String title, String slug, String description) {
-        if (repository.existsBySlug(slug)) {
-            throw new IllegalArgumentException("Slug '" + slug + "' already exists");
-        }
-        SoupEntry entry = SoupEntry.create(title, slug, description);
-        return repository.save(entry);
+        return timed("create", () -> {
+            if (repository.existsBySlug(slug)) {
+                throw new IllegalArgumentException("Slug '" + slug + "' already exists");
+            }
+            SoupEntry entry = SoupEntry.create(title, slug, description);
+            return repository.save(entry);
+        });
     }
 
     public SoupEntry getEntry(UUID id) {
@@ -32,13 +98,49 @@ public class SoupEntryService {
     }
 
     public List<SoupEntry> getAllEntries() {
-        return repository.findAll();
+        return timed("list", repository::findAllWithContent);
+    }
+
+    /**
+     * One page of the admin listing, newest first, optionally restricted to
+     * the given statuses (all when empty). Pass the previous page's
+     * {@code nextCursor} to continue; null starts from the newest entry.
+     */
+    public EntryPage<SoupEntry> listEntries(String cursor, Collection<SoupStatus> statuses, int limit) {
+        return timed("list_page",
+                () -> page(cursor, statuses, limit, repository::findPageWithContent,
+                        SoupEntry::getCreatedAt, SoupEntry::getId));
+    }
+
+    /** Like {@link #listEntries} but without the content bodies. */
+    public EntryPage<SoupEntrySummary> listEntrySummaries(String cursor, Collection<SoupStatus> statuses,
+            int limit) {
+        return timed("list_summary_page",
+                () -> page(cursor, statuses, limit, repository::findSummaryPage,
+                        SoupEntrySummary::createdAt, SoupEntrySummary::id));
     }
 
     public List<SoupEntry> getPublishedEntries() {
         return repository.findByStatusOrderByCreatedAtDesc(SoupStatus.PUBLISHED);
     }
 
+    public List<PublishedEntrySummary> getPublishedSummaries() {
+        return timed("published_summaries", () -> {
+            List<PublishedEntrySummary> cached = publishedSummaries;
+            if (cached != null) {
+                return cached;
+            }
+            long generation = summariesGeneration.get();
+            List<PublishedEntrySummary> loaded = List.copyOf(repository.findPublishedSummaries());
+            synchronized (summariesGeneration) {
+                if (summariesGeneration.get() == generation) {
+                    publishedSummaries = loaded;
+                }
+            }
+            return loaded;
+        });
+    }
+
     public SoupEntry getPublishedBySlug(String slug) {
         SoupEntry entry = repository.findBySlug(slug)
                 .orElseThrow(() -> new IllegalArgumentException("Entry not found: " + slug));
@@ -48,113 +150,296 @@ public class SoupEntryService {
         return entry;
     }
 
+    public PreparedJson getPublishedJson(String slug) {
+        return timed("published_json", () -> {
+            Instant updatedAt = repository.findPublishedUpdatedAt(slug).orElse(null);
+            if (updatedAt != null) {
+                PreparedJson cached = publishedBySlug.getIfPresent(new RenderKey(slug, updatedAt));
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            // Cached under the version actually rendered, which may be newer
+            // than the one looked up above.
+            SoupEntry entry = getPublishedBySlug(slug);
+            PreparedJson json = PreparedJson.of(jsonMapper, entry, entry.getUpdatedAt());
+            publishedBySlug.put(new RenderKey(slug, entry.getUpdatedAt()), json);
+            return json;
+        });
+    }
+
     // Phase 1: Example
     public SoupEntry updateExample(UUID id, String description, String starterCode,
             String testsCode, String simulationCode) {
-        SoupEntry entry = getEntry(id);
-        entry.setExampleDescription(description);
-        entry.setExampleStarterCode(starterCode);
-        entry.setExampleTestsCode(testsCode);
-        entry.setExampleSimulationCode(simulationCode);
-        entry.setUpdatedAt(Instant.now());
-        return repository.save(entry);
+        Map<ContentField, String> values = new EnumMap<>(ContentField.class);
+        values.put(ContentField.EXAMPLE_DESCRIPTION, description);
+        values.put(ContentField.EXAMPLE_STARTER_CODE, starterCode);
+        values.put(ContentField.EXAMPLE_TESTS_CODE, testsCode);
+        values.put(ContentField.EXAMPLE_SIMULATION_CODE, simulationCode);
+        return timed("update_example", () -> saveContent(id, values));
     }
 
     // Phase 2: Explanation
     public SoupEntry updateExplanation(UUID id, String assumption, String invariant,
             String machineBehavior) {
-        SoupEntry entry = getEntry(id);
-        if (entry.getStatus().ordinal() < SoupStatus.DRAFT_EXPLANATION.ordinal()) {
-            throw new IllegalStateException("Must complete example phase first");
-        }
-        entry.setExplanationAssumption(assumption);
-        entry.setExplanationInvariant(invariant);
-        entry.setExplanationMachineBehavior(machineBehavior);
-        entry.setUpdatedAt(Instant.now());
-        return repository.save(entry);
+        Map<ContentField, String> values = new EnumMap<>(ContentField.class);
+        values.put(ContentField.EXPLANATION_ASSUMPTION, assumption);
+        values.put(ContentField.EXPLANATION_INVARIANT, invariant);
+        values.put(ContentField.EXPLANATION_MACHINE_BEHAVIOR, machineBehavior);
+        return timed("update_explanation", () -> saveContent(id, values));
     }
 
     // Phase 3: Article
     public SoupEntry updateArticle(UUID id, String articleContent) {
-        SoupEntry entry = getEntry(id);
-        if (entry.getStatus().ordinal() < SoupStatus.DRAFT_ARTICLE.ordinal()) {
-            throw new IllegalStateException("Must complete explanation phase first");
-        }
-        entry.setArticleContent(articleContent);
-        entry.setUpdatedAt(Instant.now());
-        return repository.save(entry);
+        Map<ContentField, String> values = new EnumMap<>(ContentField.class);
+        values.put(ContentField.ARTICLE_CONTENT, articleContent);
+        return timed("update_article", () -> saveContent(id, values));
+    }
+
+    /**
+     * Sets only the given fields; the rest keep their values. Fields whose
+     * value is unchanged are not written.
+     */
+    public SoupEntry patchContent(UUID id, Map<ContentField, String> values) {
+        return timed("patch_content", () -> saveContent(id, values));
+    }
+
+    public List<RevisionSummary> getRevisions(UUID id, ContentField field) {
+        return timed("revisions", () -> {
+            if (!repository.existsById(id)) {
+                throw new IllegalArgumentException("Entry not found: " + id);
+            }
+            return revisions.listRevisions(id, field);
+        });
+    }
+
+    public ContentRevision getRevision(UUID id, ContentField field, int revision) {
+        return timed("revision", () -> revisions.getRevision(id, field, revision));
     }
 
     // Advance ceremony
     public SoupEntry advance(UUID id) {
-        SoupEntry entry = getEntry(id);
-        SoupStatus current = entry.getStatus();
-
-        // Validate phase requirements before advancing
-        switch (current) {
-            case DRAFT_EXAMPLE -> {
-                if (isBlank(entry.getExampleDescription()) ||
-                        isBlank(entry.getExampleStarterCode()) ||
-                        isBlank(entry.getExampleTestsCode()) ||
-                        isBlank(entry.getExampleSimulationCode())) {
-                    throw new IllegalStateException(
-                            "All example fields (description, starter code, tests, simulation) must be filled");
+        return timed("advance", () -> {
+            SoupEntry entry = getEntry(id);
+            SoupStatus current = entry.getStatus();
+
+            // Validate phase requirements before advancing
+            switch (current) {
+                case DRAFT_EXAMPLE -> {
+                    if (isBlank(entry.getExampleDescription()) ||
+                            isBlank(entry.getExampleStarterCode()) ||
+                            isBlank(entry.getExampleTestsCode()) ||
+                            isBlank(entry.getExampleSimulationCode())) {
+                        throw new IllegalStateException(
+                                "All example fields (description, starter code, tests, simulation) must be filled");
+                    }
                 }
-            }
-            case DRAFT_EXPLANATION -> {
-                if (isBlank(entry.getExplanationAssumption()) ||
-                        isBlank(entry.getExplanationInvariant()) ||
-                        isBlank(entry.getExplanationMachineBehavior())) {
-                    throw new IllegalStateException(
-                            "All explanation fields (assumption, invariant, machine behavior) must be filled");
+                case DRAFT_EXPLANATION -> {
+                    if (isBlank(entry.getExplanationAssumption()) ||
+                            isBlank(entry.getExplanationInvariant()) ||
+                            isBlank(entry.getExplanationMachineBehavior())) {
+                        throw new IllegalStateException(
+                                "All explanation fields (assumption, invariant, machine behavior) must be filled");
+                    }
+                }
+                case DRAFT_ARTICLE, PUBLISHED -> {
+                    throw new IllegalStateException("Cannot advance from " + current);
                 }
             }
-            case DRAFT_ARTICLE, PUBLISHED -> {
-                throw new IllegalStateException("Cannot advance from " + current);
-            }
-        }
 
-        entry.setStatus(current.next());
-        entry.setUpdatedAt(Instant.now());
-        return repository.save(entry);
+            entry.setStatus(current.next());
+            entry.setUpdatedAt(Instant.now());
+            return saveAndInvalidate(entry);
+        });
     }
 
     // Publish
     public SoupEntry publish(UUID id) {
-        SoupEntry entry = getEntry(id);
-        if (entry.getStatus() != SoupStatus.DRAFT_ARTICLE) {
-            throw new IllegalStateException(
-                    "Can only publish from DRAFT_ARTICLE status. Current: " + entry.getStatus());
-        }
-        // Example + Explanation must exist (Article is optional)
-        if (isBlank(entry.getExampleDescription()) || isBlank(entry.getExplanationAssumption())) {
-            throw new IllegalStateException("Example and explanation must be complete to publish");
-        }
-        entry.setStatus(SoupStatus.PUBLISHED);
-        entry.setPublishedAt(Instant.now());
-        entry.setUpdatedAt(Instant.now());
-        return repository.save(entry);
+        return timed("publish", () -> {
+            SoupEntry entry = getEntry(id);
+            if (entry.getStatus() != SoupStatus.DRAFT_ARTICLE) {
+                throw new IllegalStateException(
+                        "Can only publish from DRAFT_ARTICLE status. Current: " + entry.getStatus());
+            }
+            // Example + Explanation must exist (Article is optional)
+            if (isBlank(entry.getExampleDescription()) || isBlank(entry.getExplanationAssumption())) {
+                throw new IllegalStateException("Example and explanation must be complete to publish");
+            }
+            entry.setStatus(SoupStatus.PUBLISHED);
+            entry.setPublishedAt(Instant.now());
+            entry.setUpdatedAt(Instant.now());
+            SoupEntry saved = repository.save(entry);
+            invalidatePublished(saved);
+            return saved;
+        });
     }
 
     // Unpublish
     public SoupEntry unpublish(UUID id) {
-        SoupEntry entry = getEntry(id);
-        if (entry.getStatus() != SoupStatus.PUBLISHED) {
-            throw new IllegalStateException("Entry is not published");
-        }
-        entry.setStatus(SoupStatus.DRAFT_ARTICLE);
-        entry.setPublishedAt(null);
-        entry.setUpdatedAt(Instant.now());
-        return repository.save(entry);
+        return timed("unpublish", () -> {
+            SoupEntry entry = getEntry(id);
+            if (entry.getStatus() != SoupStatus.PUBLISHED) {
+                throw new IllegalStateException("Entry is not published");
+            }
+            entry.setStatus(SoupStatus.DRAFT_ARTICLE);
+            entry.setPublishedAt(null);
+            entry.setUpdatedAt(Instant.now());
+            SoupEntry saved = repository.save(entry);
+            invalidatePublished(saved);
+            return saved;
+        });
     }
 
     // Delete
     public void deleteEntry(UUID id) {
-        SoupEntry entry = getEntry(id);
-        if (entry.getStatus() == SoupStatus.PUBLISHED) {
-            throw new IllegalStateException("Cannot delete a published entry. Unpublish first.");
+        timed("delete", () -> {
+            SoupEntry entry = getEntry(id);
+            if (entry.getStatus() == SoupStatus.PUBLISHED) {
+                throw new IllegalStateException("Cannot delete a published entry. Unpublish first.");
+            }
+            repository.delete(entry);
+            evictRendered(entry.getSlug());
+        });
+    }
+
+    // Applies content edits and records a revision for each field that
+    // actually changed, in one transaction. Every field's phase must have
+    // been reached. Nothing is written when no value changed.
+    private SoupEntry saveContent(UUID id, Map<ContentField, String> values) {
+        boolean[] changed = new boolean[1];
+        SoupEntry saved = transactionTemplate.execute(status -> {
+            SoupEntry entry = repository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Entry not found: " + id));
+            for (ContentField field : values.keySet()) {
+                if (entry.getStatus().ordinal() < field.phase().ordinal()) {
+                    throw new IllegalStateException(switch (field.phase()) {
+                        case DRAFT_EXPLANATION -> "Must complete example phase first";
+                        default -> "Must complete explanation phase first";
+                    });
+                }
+            }
+            Instant now = Instant.now();
+            Instant previousAt = entry.getUpdatedAt();
+            values.forEach((field, value) -> {
+                String previous = field.get(entry);
+                if (!Objects.equals(previous, value)) {
+                    revisions.record(id, field, previous, previousAt, value, now);
+                    field.set(entry, value);
+                    changed[0] = true;
+                }
+            });
+            if (!changed[0]) {
+                return entry;
+            }
+            if (values.containsKey(ContentField.ARTICLE_CONTENT)) {
+                entry.setHasArticle(!isBlank(entry.getArticleContent()));
+            }
+            entry.setUpdatedAt(now);
+            return repository.save(entry);
+        });
+        if (changed[0]) {
+            invalidateAfterSave(saved);
+        }
+        return saved;
+    }
+
+    private SoupEntry saveAndInvalidate(SoupEntry entry) {
+        SoupEntry saved = repository.save(entry);
+        invalidateAfterSave(saved);
+        return saved;
+    }
+
+    // Content edits only change the public listing when the entry is live.
+    private void invalidateAfterSave(SoupEntry saved) {
+        if (saved.getStatus() == SoupStatus.PUBLISHED) {
+            invalidatePublished(saved);
+        } else {
+            evictRendered(saved.getSlug());
+        }
+    }
+
+    // Called whenever the public version of an entry changes: publish,
+    // unpublish, or an edit while published.
+    private void invalidatePublished(SoupEntry entry) {
+        synchronized (summariesGeneration) {
+            summariesGeneration.incrementAndGet();
+            publishedSummaries = null;
+        }
+        evictRendered(entry.getSlug());
+        search.indexEntry(entry);
+    }
+
+    private void evictRendered(String slug) {
+        publishedBySlug.asMap().keySet().removeIf(key -> key.slug().equals(slug));
+    }
+
+    // Records the call in the entries.<operation> timer, tagged with how it
+    // ended: success, invalid (bad id/slug) or rejected (status rule).
+    private <T> T timed(String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (IllegalStateException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("entries." + operation, "outcome", outcome));
+        }
+    }
+
+    private void timed(String operation, Runnable action) {
+        timed(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private record RenderKey(String slug, Instant updatedAt) {
+    }
+
+    @FunctionalInterface
+    private interface PageQuery<T> {
+        List<T> find(Collection<SoupStatus> statuses, Instant createdAt, UUID id, Limit limit);
+    }
+
+    // Reads one row past the page to learn whether another page follows.
+    private static <T> EntryPage<T> page(String cursor, Collection<SoupStatus> statuses, int limit,
+            PageQuery<T> query, Function<T, Instant> createdAt, Function<T, UUID> id) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Collection<SoupStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(SoupStatus.class)
+                : statuses;
+
+        Instant afterCreatedAt = FIRST_PAGE_CREATED_AT;
+        UUID afterId = FIRST_PAGE_ID;
+        if (cursor != null && !cursor.isEmpty()) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('_');
+                afterCreatedAt = Instant.parse(decoded.substring(0, separator));
+                afterId = UUID.fromString(decoded.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<T> rows = query.find(filter, afterCreatedAt, afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new EntryPage<>(rows, null);
         }
-        repository.delete(entry);
+        T last = rows.get(limit - 1);
+        String next = createdAt.apply(last) + "_" + id.apply(last);
+        return new EntryPage<>(rows.subList(0, limit),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(next.getBytes(StandardCharsets.UTF_8)));
     }
 
     private boolean isBlank(String s) {
@@ -1,84 +1,101 @@
 package com.something.something.service;
 
 import com.something.something.model.Task;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import com.something.something.web.PreparedJson;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
 public class TaskService {
 
-    private final List<Task> tasks = new ArrayList<>();
-    private final Map<String, Task> tasksById = new LinkedHashMap<>();
+    // Parsed and serialized once per file; see ContentLibrary for reloads.
+    private final ContentLibrary<Task> library;
+    private final ContentDirectoryWatcher watcher;
+
+    public TaskService(JsonMapper jsonMapper, ContentDirectoryWatcher watcher, MarkdownRenderer markdown) {
+        this.library = new ContentLibrary<>("tasks", TaskService::parse,
+                markdown.isEnabled() ? task -> render(task, markdown) : null, jsonMapper);
+        this.watcher = watcher;
+    }
 
     @PostConstruct
     public void loadTasks() throws IOException {
-        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-        Resource[] resources = resolver.getResources("classpath:tasks/*.md");
-
-        Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
-
-        for (Resource resource : resources) {
-            String filename = resource.getFilename();
-            if (filename == null)
-                continue;
-
-            String content = resource.getContentAsString(StandardCharsets.UTF_8);
-            String id = filename.replace(".md", "");
-
-            String title = "";
-            String description = "";
-            String starterCode = "";
-            String body = content;
-
-            // Parse front matter
-            if (content.startsWith("---")) {
-                int endIndex = content.indexOf("---", 3);
-                if (endIndex > 0) {
-                    String frontMatter = content.substring(3, endIndex).trim();
-                    body = content.substring(endIndex + 3).trim();
-
-                    for (String line : frontMatter.split("\n")) {
-                        line = line.trim();
-                        if (line.startsWith("title:")) {
-                            title = line.substring(6).trim();
-                        }
+        // Watch before loading, so a file changed during the load is
+        // reloaded once the watcher starts.
+        watcher.register(library);
+        library.load(watcher.getContentRoot());
+    }
+
+    static Task parse(String id, String content) {
+        String title = "";
+        String description = "";
+        String starterCode = "";
+        String body = content;
+
+        // Parse front matter
+        if (content.startsWith("---")) {
+            int endIndex = content.indexOf("---", 3);
+            if (endIndex > 0) {
+                String frontMatter = content.substring(3, endIndex).trim();
+                body = content.substring(endIndex + 3).trim();
+
+                for (String line : frontMatter.split("\n")) {
+                    line = line.trim();
+                    if (line.startsWith("title:")) {
+                        title = line.substring(6).trim();
                     }
                 }
             }
+        }
 
-            // Split body into description and starter code at ```js marker
-            int codeStart = body.indexOf("```js");
-            if (codeStart < 0)
-                codeStart = body.indexOf("```javascript");
-
-            if (codeStart >= 0) {
-                description = body.substring(0, codeStart).trim();
-                int codeContentStart = body.indexOf("\n", codeStart) + 1;
-                int codeEnd = body.indexOf("```", codeContentStart);
-                if (codeEnd > codeContentStart) {
-                    starterCode = body.substring(codeContentStart, codeEnd).trim();
-                }
-            } else {
-                description = body;
+        // Split body into description and starter code at ```js marker
+        int codeStart = body.indexOf("```js");
+        if (codeStart < 0)
+            codeStart = body.indexOf("```javascript");
+
+        if (codeStart >= 0) {
+            description = body.substring(0, codeStart).trim();
+            int codeContentStart = body.indexOf("\n", codeStart) + 1;
+            int codeEnd = body.indexOf("```", codeContentStart);
+            if (codeEnd > codeContentStart) {
+                starterCode = body.substring(codeContentStart, codeEnd).trim();
             }
-
-            Task task = new Task(id, title, description, starterCode);
-            tasks.add(task);
-            tasksById.put(id, task);
+        } else {
+            description = body;
         }
+
+        return new Task(id, title, description, starterCode);
+    }
+
+    // The rendered form replaces the markdown description rather than adding to it.
+    static Task render(Task task, MarkdownRenderer markdown) {
+        Task rendered = new Task(task.getId(), task.getTitle(), null, task.getStarterCode());
+        rendered.setDescriptionHtml(markdown.render(task.getDescription()));
+        return rendered;
+    }
+
+    /** See {@link ContentLibrary#addListener}. */
+    public void addListener(ContentLibrary.Listener<Task> listener) {
+        library.addListener(listener);
     }
 
     public List<Task> getAllTasks() {
-        return Collections.unmodifiableList(tasks);
+        return library.getAll();
     }
 
     public Optional<Task> getTask(String id) {
-        return Optional.ofNullable(tasksById.get(id));
+        return library.get(id);
+    }
+
+    public PreparedJson getAllTasksJson(boolean html) {
+        return library.getAllJson(html);
+    }
+
+    public Optional<PreparedJson> getTaskJson(String id, boolean html) {
+        return library.getJson(id, html);
     }
 }
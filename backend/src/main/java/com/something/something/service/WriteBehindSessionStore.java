@@ -0,0 +1,389 @@
+package com.something.something.service;
+
+import com.something.something.model.UserSession;
+import com.something.something.repository.UserSessionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps active sessions in memory and writes them back to user_sessions in
+ * batches instead of on every click. Each session is mutated under its own
+ * lock, so transitions are applied one at a time in Phase.next() order
+ * exactly as they would be against the database.
+ *
+ * The bound on entries is soft: sessions with unflushed changes (or in use by
+ * a request) are never evicted, so between flushes the store can briefly hold
+ * more than max-entries sessions. Unflushed sessions are capped at max-dirty:
+ * past it a change waits for a flush, or is refused while flushes are
+ * failing, rather than piling up in memory.
+ *
+ * Each cached session carries the row version it was read or last written
+ * at. A flush only overwrites a row still at that version; a row changed
+ * underneath (another instance, a manual fix) wins, and the cached session
+ * is reset to it.
+ *
+ * Archived sessions are remembered for a while after their rows are deleted,
+ * so a request or flush that raced the archiver cannot insert them again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sessions.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindSessionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindSessionStore.class);
+    // Far longer than a flush or a session load can take.
+    private static final Duration ARCHIVED_TTL = Duration.ofMinutes(10);
+
+    private final UserSessionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxEntries;
+    private final int maxDirty;
+    private final int batchSize;
+    private volatile boolean lastFlushFailed;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Iteration starts at the least recently used session: pin() moves an
+    // entry to the tail on every request.
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>();
+    private final ReentrantLock entriesLock = new ReentrantLock();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Cache<UUID, Boolean> archived = Caffeine.newBuilder()
+            .expireAfterWrite(ARCHIVED_TTL)
+            .build();
+
+    // What a flush wrote: the new row versions, and the rows it left alone
+    // because they had moved past the cached version.
+    private record Written(Map<UUID, Long> versions, Map<UUID, UserSession> conflicts) {
+    }
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        final UserSession session;
+        int pins;
+
+        Entry(UserSession session) {
+            this.session = session;
+        }
+    }
+
+    public WriteBehindSessionStore(UserSessionRepository repository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.sessions.write-behind.max-entries:10000}") int maxEntries,
+            @Value("${app.sessions.write-behind.max-dirty:10000}") int maxDirty,
+            @Value("${app.sessions.write-behind.batch-size:100}") int batchSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxEntries = maxEntries;
+        this.maxDirty = maxDirty;
+        this.batchSize = batchSize;
+    }
+
+    public UserSession create(UserSession session) {
+        reserveDirty(session.getId());
+        Entry entry = new Entry(copyOf(session));
+        entriesLock.lock();
+        try {
+            entries.put(session.getId(), entry);
+            dirty.add(session.getId());
+            evictOverflow();
+        } finally {
+            entriesLock.unlock();
+        }
+        return copyOf(session);
+    }
+
+    public UserSession get(UUID id) {
+        return update(id, session -> {
+        }, false);
+    }
+
+    /**
+     * Applies {@code change} to the cached session under its lock and marks it
+     * for the next flush. If {@code change} throws, nothing is marked dirty.
+     * Throws TransientDataAccessResourceException when max-dirty sessions are
+     * waiting and the database is not taking writes.
+     */
+    public UserSession update(UUID id, Consumer<UserSession> change) {
+        reserveDirty(id);
+        return update(id, change, true);
+    }
+
+    int dirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Forgets sessions whose rows are being archived. Must be called before
+     * the deleting transaction commits. A request already holding one of
+     * them finishes on a detached copy that is never flushed; later requests
+     * get "not found", and flushes will not insert the rows again.
+     */
+    public void discard(Collection<UUID> ids) {
+        entriesLock.lock();
+        try {
+            for (UUID id : ids) {
+                archived.put(id, Boolean.TRUE);
+                entries.remove(id);
+                dirty.remove(id);
+            }
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    private UserSession update(UUID id, Consumer<UserSession> change, boolean markDirty) {
+        Entry entry = pin(id);
+        try {
+            entry.lock.lock();
+            try {
+                change.accept(entry.session);
+                if (markDirty) {
+                    dirty.add(id);
+                }
+                return copyOf(entry.session);
+            } finally {
+                entry.lock.unlock();
+            }
+        } finally {
+            unpin(entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<UUID> pending = new ArrayList<>(dirty);
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<UUID> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                if (!flushBatch(batch)) {
+                    lastFlushFailed = true;
+                    return;
+                }
+            }
+            lastFlushFailed = false;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Backpressure: a change that would take the store past max-dirty
+    // flushes first, which also makes concurrent callers queue behind it.
+    // While flushes are failing the change is refused straight away.
+    private void reserveDirty(UUID id) {
+        if (dirty.size() < maxDirty || dirty.contains(id)) {
+            return;
+        }
+        if (!lastFlushFailed) {
+            flush();
+        }
+        if (dirty.size() >= maxDirty) {
+            throw new TransientDataAccessResourceException(
+                    dirty.size() + " session changes are waiting to be written; try again later");
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!dirty.isEmpty()) {
+            log.error("{} sessions could not be written back before shutdown", dirty.size());
+        }
+    }
+
+    private boolean flushBatch(List<UUID> ids) {
+        // Pinned entries cannot be evicted while their write is in flight.
+        Map<UUID, Entry> pinned = new HashMap<>();
+        Map<UUID, UserSession> snapshots = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            Entry entry = pinIfPresent(id, false);
+            if (entry == null) {
+                dirty.remove(id);
+                continue;
+            }
+            pinned.put(id, entry);
+            // Clear the mark before copying: a change made after the copy
+            // marks the session again and goes out with the next flush.
+            entry.lock.lock();
+            try {
+                dirty.remove(id);
+                snapshots.put(id, copyOf(entry.session));
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+
+        try {
+            if (!snapshots.isEmpty()) {
+                settle(pinned, transactionTemplate.execute(status -> write(snapshots)));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            dirty.addAll(snapshots.keySet());
+            log.warn("Write-behind flush of {} sessions failed; will retry", snapshots.size(), e);
+            return false;
+        } finally {
+            pinned.values().forEach(this::unpin);
+        }
+    }
+
+    private Written write(Map<UUID, UserSession> snapshots) {
+        Map<UUID, UserSession> managed = new HashMap<>();
+        for (UserSession session : repository.findAllById(snapshots.keySet())) {
+            managed.put(session.getId(), session);
+        }
+        Map<UUID, UserSession> written = new HashMap<>();
+        Map<UUID, UserSession> conflicts = new HashMap<>();
+        snapshots.forEach((id, snapshot) -> {
+            UserSession target = managed.get(id);
+            if (target == null) {
+                // Checked after the read: a row archived since the snapshot
+                // was taken is already marked.
+                if (archived.getIfPresent(id) == null) {
+                    entityManager.persist(snapshot);
+                    written.put(id, snapshot);
+                }
+            } else if (target.getVersion() != snapshot.getVersion()) {
+                conflicts.put(id, copyOf(target));
+            } else {
+                copyState(snapshot, target);
+                written.put(id, target);
+            }
+        });
+        // Assigns the new versions.
+        entityManager.flush();
+        Map<UUID, Long> versions = new HashMap<>();
+        written.forEach((id, session) -> versions.put(id, session.getVersion()));
+        return new Written(versions, conflicts);
+    }
+
+    // After the commit: cached sessions move to the versions just written,
+    // or back to the database's state where it had changed underneath.
+    private void settle(Map<UUID, Entry> pinned, Written written) {
+        written.versions().forEach((id, version) -> {
+            Entry entry = pinned.get(id);
+            entry.lock.lock();
+            try {
+                entry.session.setVersion(version);
+            } finally {
+                entry.lock.unlock();
+            }
+        });
+        written.conflicts().forEach((id, row) -> {
+            Entry entry = pinned.get(id);
+            entry.lock.lock();
+            try {
+                copyState(row, entry.session);
+                entry.session.setVersion(row.getVersion());
+                dirty.remove(id);
+            } finally {
+                entry.lock.unlock();
+            }
+        });
+        if (!written.conflicts().isEmpty()) {
+            log.warn("{} sessions were changed in user_sessions since they were cached; "
+                    + "kept the stored version", written.conflicts().size());
+        }
+    }
+
+    private Entry pin(UUID id) {
+        Entry entry = pinIfPresent(id, true);
+        if (entry != null) {
+            return entry;
+        }
+        // Load outside the map lock so a slow read does not block other sessions.
+        UserSession loaded = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Session not found: " + id));
+        entriesLock.lock();
+        try {
+            if (archived.getIfPresent(id) != null) {
+                throw new IllegalArgumentException("Session not found: " + id);
+            }
+            Entry existing = entries.get(id);
+            if (existing == null) {
+                existing = new Entry(loaded);
+                entries.put(id, existing);
+            }
+            existing.pins++;
+            evictOverflow();
+            return existing;
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    private Entry pinIfPresent(UUID id, boolean touch) {
+        entriesLock.lock();
+        try {
+            Entry entry = touch ? entries.remove(id) : entries.get(id);
+            if (entry != null) {
+                entry.pins++;
+                if (touch) {
+                    entries.put(id, entry);
+                }
+            }
+            return entry;
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    private void unpin(Entry entry) {
+        entriesLock.lock();
+        try {
+            entry.pins--;
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    // Caller holds entriesLock.
+    private void evictOverflow() {
+        Iterator<Map.Entry<UUID, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Map.Entry<UUID, Entry> eldest = it.next();
+            Entry entry = eldest.getValue();
+            if (entry.pins == 0 && !dirty.contains(eldest.getKey())) {
+                it.remove();
+            }
+        }
+    }
+
+    static UserSession copyOf(UserSession source) {
+        UserSession copy = new UserSession();
+        copy.setId(source.getId());
+        copy.setVersion(source.getVersion());
+        copyState(source, copy);
+        return copy;
+    }
+
+    private static void copyState(UserSession source, UserSession target) {
+        target.setCurrentPhase(source.getCurrentPhase());
+        target.setCreatedAt(source.getCreatedAt());
+        target.setHazardAcceptedAt(source.getHazardAcceptedAt());
+        target.setCodeSubmittedAt(source.getCodeSubmittedAt());
+        target.setFailureRevealedAt(source.getFailureRevealedAt());
+        target.setForkReachedAt(source.getForkReachedAt());
+        target.setExitedAt(source.getExitedAt());
+        target.setQuitPhase(source.getQuitPhase());
+    }
+}
@@ -0,0 +1,102 @@
+package com.something.something.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body serialized once, kept as plain and gzipped bytes with
+ * a strong ETag for each. Conditional GETs are answered by Spring MVC: a
+ * matching If-None-Match (or If-Modified-Since, when a last-modified time is
+ * known) on a ResponseEntity with these headers becomes a 304.
+ */
+public final class PreparedJson {
+
+    private final byte[] body;
+    private final byte[] gzipped;
+    private final String etag;
+    private final Instant lastModified;
+
+    private PreparedJson(byte[] body, Instant lastModified) {
+        this.body = body;
+        this.gzipped = gzip(body);
+        this.etag = hash(body);
+        this.lastModified = lastModified;
+    }
+
+    public static PreparedJson of(JsonMapper mapper, Object value) {
+        return new PreparedJson(mapper.writeValueAsBytes(value), null);
+    }
+
+    public static PreparedJson of(JsonMapper mapper, Object value, Instant lastModified) {
+        return new PreparedJson(mapper.writeValueAsBytes(value), lastModified);
+    }
+
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        // Strong ETags must differ between encodings of the same body.
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag("\"" + etag + "-gz\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(gzipped);
+        }
+        return response.eTag("\"" + etag + "\"").body(body);
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    /** Approximate heap cost, for weighing cache entries. */
+    public int size() {
+        return body.length + gzipped.length + 64;
+    }
+
+    /** Whether an Accept-Encoding header allows a gzip response. */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
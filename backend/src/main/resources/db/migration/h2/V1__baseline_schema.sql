@@ -0,0 +1,35 @@
+-- Schema as Hibernate generated it before migrations were introduced.
+-- IF NOT EXISTS lets databases created by ddl-auto=update run this as a no-op.
+
+CREATE TABLE IF NOT EXISTS user_sessions (
+    id UUID NOT NULL,
+    current_phase ENUM ('COMFORT_BAIT','EXITED','FORK','HAZARD_WARNING','HIDDEN_FAILURE','READINGS','REVEAL') NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    hazard_accepted_at TIMESTAMP(6) WITH TIME ZONE,
+    code_submitted_at TIMESTAMP(6) WITH TIME ZONE,
+    failure_revealed_at TIMESTAMP(6) WITH TIME ZONE,
+    fork_reached_at TIMESTAMP(6) WITH TIME ZONE,
+    exited_at TIMESTAMP(6) WITH TIME ZONE,
+    quit_phase ENUM ('COMFORT_BAIT','EXITED','FORK','HAZARD_WARNING','HIDDEN_FAILURE','READINGS','REVEAL'),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS soup_entries (
+    id UUID NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    slug VARCHAR(255) NOT NULL UNIQUE,
+    description TEXT,
+    status ENUM ('DRAFT_ARTICLE','DRAFT_EXAMPLE','DRAFT_EXPLANATION','PUBLISHED') NOT NULL,
+    example_description TEXT,
+    example_starter_code TEXT,
+    example_tests_code TEXT,
+    example_simulation_code TEXT,
+    explanation_assumption TEXT,
+    explanation_invariant TEXT,
+    explanation_machine_behavior TEXT,
+    article_content TEXT,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    published_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
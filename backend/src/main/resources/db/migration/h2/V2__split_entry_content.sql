@@ -0,0 +1,46 @@
+-- Moves the phase bodies out of soup_entries into soup_entry_contents.
+-- Databases that ddl-auto already split have the new table but not the old
+-- columns; re-adding the columns empty keeps the copy below valid for both.
+
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_description TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_starter_code TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_tests_code TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_simulation_code TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS explanation_assumption TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS explanation_invariant TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS explanation_machine_behavior TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS article_content TEXT;
+
+CREATE TABLE IF NOT EXISTS soup_entry_contents (
+    id UUID NOT NULL,
+    example_description TEXT,
+    example_starter_code TEXT,
+    example_tests_code TEXT,
+    example_simulation_code TEXT,
+    explanation_assumption TEXT,
+    explanation_invariant TEXT,
+    explanation_machine_behavior TEXT,
+    article_content TEXT,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS content_id UUID;
+
+INSERT INTO soup_entry_contents (id, example_description, example_starter_code, example_tests_code,
+        example_simulation_code, explanation_assumption, explanation_invariant,
+        explanation_machine_behavior, article_content)
+SELECT id, example_description, example_starter_code, example_tests_code,
+        example_simulation_code, explanation_assumption, explanation_invariant,
+        explanation_machine_behavior, article_content
+FROM soup_entries
+WHERE content_id IS NULL;
+
+UPDATE soup_entries SET content_id = id WHERE content_id IS NULL;
+
+ALTER TABLE soup_entries ADD CONSTRAINT IF NOT EXISTS uk_soup_entries_content_id UNIQUE (content_id);
+ALTER TABLE soup_entries ADD CONSTRAINT IF NOT EXISTS fk_soup_entries_content
+    FOREIGN KEY (content_id) REFERENCES soup_entry_contents (id);
+
+ALTER TABLE soup_entries DROP COLUMN (
+    example_description, example_starter_code, example_tests_code, example_simulation_code,
+    explanation_assumption, explanation_invariant, explanation_machine_behavior, article_content);
@@ -0,0 +1,2 @@
+-- Optimistic-lock version for UserSession.
+ALTER TABLE user_sessions ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,10 @@
+-- Funnel aggregate and per-phase counts.
+CREATE INDEX IF NOT EXISTS idx_user_sessions_phase ON user_sessions (current_phase, quit_phase);
+-- countByQuitPhaseIsNotNull; H2 has no partial indexes.
+CREATE INDEX IF NOT EXISTS idx_user_sessions_quit_phase ON user_sessions (quit_phase);
+-- countExited.
+CREATE INDEX IF NOT EXISTS idx_user_sessions_exited_at ON user_sessions (exited_at);
+-- Time-window scans (dwell analytics).
+CREATE INDEX IF NOT EXISTS idx_user_sessions_created_at ON user_sessions (created_at);
+-- findByStatusOrderByCreatedAtDesc and the published listing.
+CREATE INDEX IF NOT EXISTS idx_soup_entries_status_created ON soup_entries (status, created_at DESC);
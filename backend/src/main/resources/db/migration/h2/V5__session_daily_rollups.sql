@@ -0,0 +1,13 @@
+-- Per-day funnel counts of archived user sessions.
+CREATE TABLE session_daily_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    session_date DATE NOT NULL,
+    current_phase ENUM ('COMFORT_BAIT','EXITED','FORK','HAZARD_WARNING','HIDDEN_FAILURE','READINGS','REVEAL') NOT NULL,
+    quit_phase ENUM ('COMFORT_BAIT','EXITED','FORK','HAZARD_WARNING','HIDDEN_FAILURE','READINGS','REVEAL'),
+    sessions BIGINT NOT NULL,
+    reached_fork BIGINT NOT NULL,
+    exited BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_session_daily_rollups_date ON session_daily_rollups (session_date, current_phase, quit_phase);
@@ -0,0 +1,2 @@
+-- Keyset pagination of the admin entry listing: ORDER BY created_at DESC, id DESC.
+CREATE INDEX IF NOT EXISTS idx_soup_entries_created_id ON soup_entries (created_at DESC, id DESC);
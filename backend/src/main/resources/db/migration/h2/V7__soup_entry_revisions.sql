@@ -0,0 +1,19 @@
+-- Edit history of entry content fields (snapshots and prefix/suffix deltas).
+-- The unique key doubles as the index for listing and chain reads.
+CREATE TABLE soup_entry_revisions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    entry_id UUID NOT NULL,
+    field ENUM ('ARTICLE_CONTENT','EXAMPLE_DESCRIPTION','EXAMPLE_SIMULATION_CODE','EXAMPLE_STARTER_CODE',
+        'EXAMPLE_TESTS_CODE','EXPLANATION_ASSUMPTION','EXPLANATION_INVARIANT','EXPLANATION_MACHINE_BEHAVIOR') NOT NULL,
+    revision INTEGER NOT NULL,
+    base_revision INTEGER NOT NULL,
+    snapshot BOOLEAN NOT NULL,
+    prefix_length INTEGER NOT NULL,
+    suffix_length INTEGER NOT NULL,
+    body TEXT,
+    length INTEGER,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_soup_entry_revisions_revision UNIQUE (entry_id, field, revision),
+    CONSTRAINT fk_soup_entry_revisions_entry FOREIGN KEY (entry_id) REFERENCES soup_entries (id) ON DELETE CASCADE
+);
@@ -0,0 +1,38 @@
+-- Schema as Hibernate generated it before migrations were introduced.
+-- IF NOT EXISTS lets databases created by ddl-auto=update run this as a no-op.
+
+CREATE TABLE IF NOT EXISTS user_sessions (
+    id UUID NOT NULL,
+    current_phase VARCHAR(255) NOT NULL CHECK (current_phase IN
+        ('HAZARD_WARNING','COMFORT_BAIT','HIDDEN_FAILURE','REVEAL','FORK','READINGS','EXITED')),
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    hazard_accepted_at TIMESTAMP(6) WITH TIME ZONE,
+    code_submitted_at TIMESTAMP(6) WITH TIME ZONE,
+    failure_revealed_at TIMESTAMP(6) WITH TIME ZONE,
+    fork_reached_at TIMESTAMP(6) WITH TIME ZONE,
+    exited_at TIMESTAMP(6) WITH TIME ZONE,
+    quit_phase VARCHAR(255) CHECK (quit_phase IN
+        ('HAZARD_WARNING','COMFORT_BAIT','HIDDEN_FAILURE','REVEAL','FORK','READINGS','EXITED')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS soup_entries (
+    id UUID NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    slug VARCHAR(255) NOT NULL UNIQUE,
+    description TEXT,
+    status VARCHAR(255) NOT NULL CHECK (status IN
+        ('DRAFT_EXAMPLE','DRAFT_EXPLANATION','DRAFT_ARTICLE','PUBLISHED')),
+    example_description TEXT,
+    example_starter_code TEXT,
+    example_tests_code TEXT,
+    example_simulation_code TEXT,
+    explanation_assumption TEXT,
+    explanation_invariant TEXT,
+    explanation_machine_behavior TEXT,
+    article_content TEXT,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    published_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
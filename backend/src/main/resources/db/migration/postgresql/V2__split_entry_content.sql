@@ -0,0 +1,65 @@
+-- Moves the phase bodies out of soup_entries into soup_entry_contents.
+-- Databases that ddl-auto already split have the new table but not the old
+-- columns; re-adding the columns empty keeps the copy below valid for both.
+
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_description TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_starter_code TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_tests_code TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS example_simulation_code TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS explanation_assumption TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS explanation_invariant TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS explanation_machine_behavior TEXT;
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS article_content TEXT;
+
+CREATE TABLE IF NOT EXISTS soup_entry_contents (
+    id UUID NOT NULL,
+    example_description TEXT,
+    example_starter_code TEXT,
+    example_tests_code TEXT,
+    example_simulation_code TEXT,
+    explanation_assumption TEXT,
+    explanation_invariant TEXT,
+    explanation_machine_behavior TEXT,
+    article_content TEXT,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS content_id UUID;
+
+INSERT INTO soup_entry_contents (id, example_description, example_starter_code, example_tests_code,
+        example_simulation_code, explanation_assumption, explanation_invariant,
+        explanation_machine_behavior, article_content)
+SELECT id, example_description, example_starter_code, example_tests_code,
+        example_simulation_code, explanation_assumption, explanation_invariant,
+        explanation_machine_behavior, article_content
+FROM soup_entries
+WHERE content_id IS NULL;
+
+UPDATE soup_entries SET content_id = id WHERE content_id IS NULL;
+
+-- ddl-auto may already have added these under generated names.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint c
+                   JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+                   WHERE c.conrelid = 'soup_entries'::regclass AND c.contype = 'u'
+                     AND a.attname = 'content_id') THEN
+        ALTER TABLE soup_entries ADD CONSTRAINT uk_soup_entries_content_id UNIQUE (content_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'soup_entries'::regclass AND contype = 'f') THEN
+        ALTER TABLE soup_entries ADD CONSTRAINT fk_soup_entries_content
+            FOREIGN KEY (content_id) REFERENCES soup_entry_contents (id);
+    END IF;
+END
+$$;
+
+ALTER TABLE soup_entries
+    DROP COLUMN example_description,
+    DROP COLUMN example_starter_code,
+    DROP COLUMN example_tests_code,
+    DROP COLUMN example_simulation_code,
+    DROP COLUMN explanation_assumption,
+    DROP COLUMN explanation_invariant,
+    DROP COLUMN explanation_machine_behavior,
+    DROP COLUMN article_content;
@@ -0,0 +1,18 @@
+-- Built CONCURRENTLY so live tables stay writable; Flyway runs these
+-- statements outside a transaction.
+
+-- Funnel aggregate and per-phase counts.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_sessions_phase
+    ON user_sessions (current_phase, quit_phase);
+-- countByQuitPhaseIsNotNull: only exited sessions have a quit phase.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_sessions_quit_phase
+    ON user_sessions (quit_phase) WHERE quit_phase IS NOT NULL;
+-- countExited.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_sessions_exited_at
+    ON user_sessions (exited_at) WHERE exited_at IS NOT NULL;
+-- Time-window scans (dwell analytics).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_sessions_created_at
+    ON user_sessions (created_at);
+-- findByStatusOrderByCreatedAtDesc and the published listing.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_soup_entries_status_created
+    ON soup_entries (status, created_at DESC);
@@ -0,0 +1,15 @@
+-- Per-day funnel counts of archived user sessions.
+CREATE TABLE session_daily_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    session_date DATE NOT NULL,
+    current_phase VARCHAR(255) NOT NULL CHECK (current_phase IN
+        ('HAZARD_WARNING','COMFORT_BAIT','HIDDEN_FAILURE','REVEAL','FORK','READINGS','EXITED')),
+    quit_phase VARCHAR(255) CHECK (quit_phase IN
+        ('HAZARD_WARNING','COMFORT_BAIT','HIDDEN_FAILURE','REVEAL','FORK','READINGS','EXITED')),
+    sessions BIGINT NOT NULL,
+    reached_fork BIGINT NOT NULL,
+    exited BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_session_daily_rollups_date ON session_daily_rollups (session_date, current_phase, quit_phase);
@@ -0,0 +1,4 @@
+-- Keyset pagination of the admin entry listing: ORDER BY created_at DESC,
+-- id DESC. Built CONCURRENTLY; Flyway runs it outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_soup_entries_created_id
+    ON soup_entries (created_at DESC, id DESC);
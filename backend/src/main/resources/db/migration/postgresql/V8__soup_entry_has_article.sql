@@ -0,0 +1,9 @@
+-- Whether an entry's article is non-blank, maintained on save so the public
+-- listing does not read article bodies. Existing rows count as having an
+-- article when it contains a character above U+0020 (what String.trim keeps);
+-- compressed bodies start with a marker that passes this test.
+ALTER TABLE soup_entries ADD COLUMN IF NOT EXISTS has_article BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE soup_entries e SET has_article = TRUE
+FROM soup_entry_contents c
+WHERE c.id = e.content_id AND c.article_content ~ '[^\x01-\x20]';
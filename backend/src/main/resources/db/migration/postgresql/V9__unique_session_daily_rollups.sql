@@ -0,0 +1,37 @@
+-- One rollup row per (day, current phase, quit phase): archivers on several
+-- instances add to it with an UPDATE and only insert when it is missing.
+
+-- Fold rows that share a key into the one with the lowest id, then delete
+-- the rest, so the key can become unique.
+UPDATE session_daily_rollups r SET
+    sessions = (SELECT SUM(k.sessions) FROM session_daily_rollups k
+                WHERE k.session_date = r.session_date AND k.current_phase = r.current_phase
+                  AND k.quit_phase IS NOT DISTINCT FROM r.quit_phase),
+    reached_fork = (SELECT SUM(k.reached_fork) FROM session_daily_rollups k
+                    WHERE k.session_date = r.session_date AND k.current_phase = r.current_phase
+                      AND k.quit_phase IS NOT DISTINCT FROM r.quit_phase),
+    exited = (SELECT SUM(k.exited) FROM session_daily_rollups k
+              WHERE k.session_date = r.session_date AND k.current_phase = r.current_phase
+                AND k.quit_phase IS NOT DISTINCT FROM r.quit_phase)
+WHERE r.id IN (
+    SELECT MIN(id) FROM session_daily_rollups
+    GROUP BY session_date, current_phase, quit_phase
+    HAVING COUNT(*) > 1
+);
+
+DELETE FROM session_daily_rollups r
+WHERE EXISTS (
+    SELECT 1 FROM session_daily_rollups k
+    WHERE k.session_date = r.session_date AND k.current_phase = r.current_phase
+      AND k.quit_phase IS NOT DISTINCT FROM r.quit_phase AND k.id < r.id
+);
+
+DROP INDEX idx_session_daily_rollups_date;
+
+-- A session that never exited has no quit phase, and NULLs never collide
+-- in a unique index before NULLS NOT DISTINCT (PostgreSQL 15), so those
+-- rows get their own index.
+CREATE UNIQUE INDEX uk_session_daily_rollups_key
+    ON session_daily_rollups (session_date, current_phase, quit_phase) WHERE quit_phase IS NOT NULL;
+CREATE UNIQUE INDEX uk_session_daily_rollups_key_not_quit
+    ON session_daily_rollups (session_date, current_phase) WHERE quit_phase IS NULL;
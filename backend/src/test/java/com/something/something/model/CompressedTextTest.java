@@ -0,0 +1,99 @@
+package com.something.something.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedTextTest {
+
+    private static final String LONG = "public void deposit(long amount) { balance += amount; }\n".repeat(40);
+
+    @Test
+    void leavesTextBelowTheMinimumLengthAlone() {
+        String text = LONG.substring(0, 99);
+
+        assertThat(CompressedText.encode(text, 100)).isSameAs(text);
+        assertThat(CompressedText.decode(text)).isSameAs(text);
+    }
+
+    @Test
+    void compressesTextAtOrAboveTheMinimumLength() {
+        String stored = CompressedText.encode(LONG, 100);
+
+        assertThat(CompressedText.isCompressed(stored)).isTrue();
+        assertThat(stored.length()).isLessThan(LONG.length());
+        assertThat(CompressedText.decode(stored)).isEqualTo(LONG);
+        String exact = LONG.substring(0, 100);
+        assertThat(CompressedText.decode(CompressedText.encode(exact, 100))).isEqualTo(exact);
+    }
+
+    @Test
+    void keepsTextThatDoesNotShrink() {
+        // Too short and too varied for deflate plus base64 to win.
+        String noise = "q7#Vz!0kP@x2&Lm9";
+
+        assertThat(CompressedText.encode(noise, 0)).isSameAs(noise);
+    }
+
+    @Test
+    void negativeMinimumDisablesCompression() {
+        assertThat(CompressedText.encode(LONG, -1)).isSameAs(LONG);
+    }
+
+    @Test
+    void alwaysCompressesTextThatStartsWithTheMarker() {
+        String text = CompressedText.MARKER + "not really compressed";
+
+        for (int minLength : new int[] { -1, 0, 10_000 }) {
+            String stored = CompressedText.encode(text, minLength);
+            assertThat(stored).isNotEqualTo(text);
+            assertThat(CompressedText.decode(stored)).isEqualTo(text);
+        }
+    }
+
+    @Test
+    void roundTripsNonAsciiText() {
+        String text = "Ünïcode — 日本語のテキスト, emoji 🍲 and a tab\t".repeat(50);
+
+        String stored = CompressedText.encode(text, 10);
+        assertThat(CompressedText.isCompressed(stored)).isTrue();
+        assertThat(CompressedText.decode(stored)).isEqualTo(text);
+    }
+
+    @Test
+    void passesNullAndEmptyThrough() {
+        assertThat(CompressedText.encode(null, 0)).isNull();
+        assertThat(CompressedText.decode(null)).isNull();
+        assertThat(CompressedText.isCompressed(null)).isFalse();
+        assertThat(CompressedText.encode("", 0)).isEmpty();
+    }
+
+    @Test
+    void rejectsTruncatedData() {
+        String stored = CompressedText.encode(LONG, 0);
+        String truncated = stored.substring(0, CompressedText.MARKER.length() + 8);
+
+        assertThatThrownBy(() -> CompressedText.decode(truncated)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void converterReadsBothFormsWhateverItWrites() {
+        CompressedTextConverter on = new CompressedTextConverter(true, 100);
+        CompressedTextConverter off = new CompressedTextConverter(false, 100);
+
+        String compressed = on.convertToDatabaseColumn(LONG);
+        assertThat(CompressedText.isCompressed(compressed)).isTrue();
+        assertThat(off.convertToDatabaseColumn(LONG)).isSameAs(LONG);
+
+        for (CompressedTextConverter converter : new CompressedTextConverter[] { on, off }) {
+            assertThat(converter.convertToEntityAttribute(compressed)).isEqualTo(LONG);
+            assertThat(converter.convertToEntityAttribute(LONG)).isEqualTo(LONG);
+            assertThat(converter.convertToDatabaseColumn(null)).isNull();
+            assertThat(converter.convertToEntityAttribute(null)).isNull();
+        }
+        // Disabled still protects text that looks compressed.
+        String marked = CompressedText.MARKER + "x";
+        assertThat(off.convertToEntityAttribute(off.convertToDatabaseColumn(marked))).isEqualTo(marked);
+    }
+}
@@ -0,0 +1,63 @@
+package com.something.something.service;
+
+import com.something.something.model.ContentReloadStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDirectoryWatcherTest {
+
+    @TempDir
+    Path root;
+
+    private ContentDirectoryWatcher watcher;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.stop();
+    }
+
+    @Test
+    void keepsWatchingAfterAReloadFails() throws Exception {
+        // Rendering throws for "boom", which fails the whole publish step.
+        ContentLibrary<String> library = new ContentLibrary<>("tasks", (id, content) -> content,
+                content -> {
+                    if (content.contains("boom")) {
+                        throw new IllegalStateException("cannot render");
+                    }
+                    return content;
+                }, JsonMapper.builder().build());
+        watcher = new ContentDirectoryWatcher(root.toString());
+        watcher.register(library);
+        library.load(watcher.getContentRoot());
+        watcher.start();
+        Path file = root.resolve("tasks").resolve("note.md");
+
+        Files.writeString(file, "boom");
+        awaitTrue(() -> library.getStats().failures() == 1);
+        ContentReloadStats stats = library.getStats();
+        assertThat(stats.lastFailure()).contains("cannot render");
+        assertThat(library.get("note")).isEmpty();
+
+        Files.writeString(file, "fine");
+        awaitTrue(() -> library.get("note").isPresent());
+        assertThat(library.get("note")).isEqualTo(Optional.of("fine"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.something.something.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class DwellHistogramTest {
+
+    private static final long YEAR_MS = 366L * 24 * 60 * 60 * 1000;
+
+    @Test
+    void bucketsAreTwoPercentWide() {
+        assertThat(DwellHistogram.bucketOf(0)).isZero();
+        assertThat(DwellHistogram.bucketOf(1)).isEqualTo(1);
+        assertThat(DwellHistogram.bucketOf(2)).isGreaterThan(1);
+
+        int previous = 0;
+        for (long millis = 1; millis < YEAR_MS; millis = Math.max(millis + 1, (long) (millis * 1.003))) {
+            int bucket = DwellHistogram.bucketOf(millis);
+            assertThat(bucket).isGreaterThanOrEqualTo(previous);
+            if (millis > 1000) {
+                // Steps of 0.3% never skip a 2% bucket.
+                assertThat(bucket).isLessThanOrEqualTo(previous + 1);
+            }
+            // Bucket i holds [1.02^(i-1), 1.02^i), give or take rounding at the edges.
+            assertThat((double) millis).isBetween(Math.pow(1.02, bucket - 1) * 0.9999,
+                    Math.pow(1.02, bucket) * 1.0001);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void recordsZeroAndIgnoresNegativeValues() {
+        DwellHistogram histogram = new DwellHistogram();
+        assertThat(histogram.percentile(0.5)).isZero();
+
+        histogram.record(-5);
+        assertThat(histogram.count()).isZero();
+
+        histogram.record(0);
+        histogram.record(0);
+        assertThat(histogram.count()).isEqualTo(2);
+        assertThat(histogram.percentile(0.5)).isZero();
+        assertThat(histogram.percentile(1.0)).isZero();
+        assertThat(histogram.max()).isZero();
+    }
+
+    @Test
+    void valuesPastAYearShareTheLastBucket() {
+        DwellHistogram histogram = new DwellHistogram();
+        histogram.record(1000);
+        histogram.record(5 * YEAR_MS);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(DwellHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(DwellHistogram.bucketOf(5 * YEAR_MS));
+        assertThat(histogram.max()).isEqualTo(Long.MAX_VALUE);
+        // Reported as the last bucket, about a year, rather than overflowing.
+        assertThat((double) histogram.percentile(0.99)).isCloseTo(YEAR_MS, withinPercentage(1));
+        assertThat(histogram.percentile(0.3)).isBetween(990L, 1010L);
+    }
+
+    @Test
+    void percentilesAreWithinOnePercent() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            DwellHistogram histogram = new DwellHistogram();
+            List<Long> values = new ArrayList<>();
+            // Log-uniform from 10 ms to about eleven days.
+            for (int i = 0; i < 1000; i++) {
+                long value = (long) Math.pow(10, 1 + random.nextDouble() * 8);
+                values.add(value);
+                histogram.record(value);
+            }
+            values.sort(null);
+
+            for (double q : new double[] { 0.5, 0.9, 0.99 }) {
+                long exact = values.get((int) Math.ceil(q * values.size()) - 1);
+                // 1%, plus the rounding to whole milliseconds.
+                assertThat((double) histogram.percentile(q)).isCloseTo(exact, within(exact * 0.01 + 1));
+            }
+            assertThat(histogram.max()).isEqualTo(values.get(values.size() - 1));
+        }
+    }
+}
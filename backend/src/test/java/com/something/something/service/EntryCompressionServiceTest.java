@@ -0,0 +1,113 @@
+package com.something.something.service;
+
+import com.something.something.model.CompressedText;
+import com.something.something.model.CompressedTextConverter;
+import com.something.something.repository.SoupEntryContentRepository;
+import com.something.something.repository.SoupEntryContentRepository.StoredBodies;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntryCompressionServiceTest {
+
+    private static final String LONG = "assertThat(account.balance()).isEqualTo(100);\n".repeat(60);
+    private static final String SHORT = "short body";
+
+    // soup_entry_contents by id, in the stored form.
+    private final Map<UUID, StoredRow> rows = new TreeMap<>();
+    private final List<UUID> writes = new ArrayList<>();
+
+    private record StoredRow(UUID id, String starter, String tests, String simulation, String article)
+            implements StoredBodies {
+
+        public UUID getId() { return id; }
+        public String getExampleStarterCode() { return starter; }
+        public String getExampleTestsCode() { return tests; }
+        public String getExampleSimulationCode() { return simulation; }
+        public String getArticleContent() { return article; }
+    }
+
+    @Test
+    void compressesOnceAndThenHasNothingLeftToDo() {
+        for (int i = 0; i < 7; i++) {
+            put(LONG + i, SHORT, null, "é".repeat(2000));
+        }
+        put(SHORT, null, SHORT, SHORT);
+        EntryCompressionService service = service(true);
+
+        assertThat(service.backfill()).isEqualTo(new EntryCompressionService.BackfillResult(8, 7));
+        assertThat(rows.values()).allSatisfy(row -> {
+            assertThat(row.tests()).isIn(SHORT, null);
+            assertThat(CompressedText.isCompressed(row.simulation())).isFalse();
+        });
+        assertThat(rows.values().stream().filter(row -> CompressedText.isCompressed(row.starter()))).hasSize(7);
+
+        Map<UUID, StoredRow> afterFirst = Map.copyOf(rows);
+        writes.clear();
+        assertThat(service.backfill()).isEqualTo(new EntryCompressionService.BackfillResult(8, 0));
+        assertThat(writes).isEmpty();
+        assertThat(rows).isEqualTo(afterFirst);
+    }
+
+    @Test
+    void decompressesWhenDisabledAndKeepsTheText() {
+        List<String> bodies = List.of(LONG, "Ünïcode 🍲 ".repeat(300), CompressedText.MARKER + "literal");
+        CompressedTextConverter on = new CompressedTextConverter(true, 100);
+        for (String body : bodies) {
+            put(on.convertToDatabaseColumn(body), null, null, null);
+        }
+        EntryCompressionService service = service(false);
+
+        assertThat(service.backfill().rewritten()).isEqualTo(2);
+        assertThat(rows.values()).extracting(StoredRow::starter)
+                .map(CompressedText::decode)
+                .containsExactlyInAnyOrderElementsOf(bodies);
+        // Text that starts with the marker has to stay compressed.
+        assertThat(rows.values()).extracting(StoredRow::starter)
+                .filteredOn(CompressedText::isCompressed).hasSize(1);
+
+        writes.clear();
+        assertThat(service.backfill().rewritten()).isZero();
+        assertThat(writes).isEmpty();
+    }
+
+    private void put(String starter, String tests, String simulation, String article) {
+        // Sequential ids: UUID.compareTo is signed, the database order is not.
+        UUID id = new UUID(0, rows.size() + 1);
+        rows.put(id, new StoredRow(id, starter, tests, simulation, article));
+    }
+
+    private EntryCompressionService service(boolean enabled) {
+        SoupEntryContentRepository repository = mock(SoupEntryContentRepository.class);
+        Answer<List<StoredBodies>> page = invocation -> rows.values().stream()
+                .filter(row -> row.id().compareTo(invocation.getArgument(0)) > 0)
+                .limit(invocation.<Integer>getArgument(1))
+                .<StoredBodies>map(row -> row)
+                .toList();
+        when(repository.findStoredAfter(any(), anyInt())).thenAnswer(page);
+        when(repository.lockStoredAfter(any(), anyInt())).thenAnswer(page);
+        when(repository.writeStored(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(0);
+            writes.add(id);
+            rows.put(id, new StoredRow(id, invocation.getArgument(1), invocation.getArgument(2),
+                    invocation.getArgument(3), invocation.getArgument(4)));
+            return 1;
+        });
+        // A batch size smaller than the table, so the keyset paging is exercised.
+        return new EntryCompressionService(repository, new CompressedTextConverter(enabled, 100),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 3);
+    }
+}
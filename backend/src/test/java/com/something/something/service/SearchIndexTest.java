@@ -0,0 +1,142 @@
+package com.something.something.service;
+
+import com.something.something.model.SearchHit;
+import com.something.something.model.SearchHit.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private final SearchIndex index = new SearchIndex();
+
+    @Test
+    void ranksByTermFrequencyAndRarity() {
+        index.put(Kind.TASK, "once", "One", "ledger balance and some other words here");
+        index.put(Kind.TASK, "twice", "Two", "ledger balance ledger and some other words");
+        index.put(Kind.TASK, "rare", "Three", "overdraft and some other words here too");
+
+        assertThat(ids(index.search("ledger", kind -> true, 0, 10)))
+                .containsExactly("twice", "once");
+        // "overdraft" is in one document, "ledger" in two: the rarer word
+        // outweighs a second occurrence of the common one.
+        assertThat(ids(index.search("ledger overdraft", kind -> true, 0, 10)).get(0))
+                .isEqualTo("rare");
+    }
+
+    @Test
+    void titleWordsOutweighBodyWords() {
+        index.put(Kind.READING, "body", "Modeling reality", "an invariant holds for every state");
+        index.put(Kind.READING, "title", "The invariant", "holds for every state of the model");
+
+        List<SearchHit> hits = index.search("invariant", kind -> true, 0, 10).hits();
+
+        assertThat(ids(hits)).containsExactly("title", "body");
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void expandsOnlyTheLastWordAsAPrefix() {
+        index.put(Kind.ENTRY, "exact", "Exact", "the inv helper");
+        index.put(Kind.ENTRY, "prefix", "Prefix", "the invariant helper");
+
+        List<SearchHit> hits = index.search("inv", kind -> true, 0, 10).hits();
+        assertThat(ids(hits)).containsExactly("exact", "prefix");
+        assertThat(hits.get(1).score()).isLessThan(hits.get(0).score());
+
+        // Not the last word: matched exactly only.
+        assertThat(ids(index.search("inv helper", kind -> true, 0, 10).hits()).get(0)).isEqualTo("exact");
+        assertThat(index.search("invar", kind -> true, 0, 10).total()).isEqualTo(1);
+        List<SearchHit> helper = index.search("invar helper", kind -> true, 0, 10).hits();
+        assertThat(helper).hasSize(2);
+        assertThat(helper.get(0).score()).isEqualTo(helper.get(1).score());
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        index.put(Kind.TASK, "a", "Bank account", "deposit and withdraw");
+        index.put(Kind.READING, "a", "Same id, other kind", "deposit slips");
+        index.put(Kind.TASK, "a", "Bank account", "transfer between accounts");
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("withdraw", kind -> true, 0, 10).total()).isZero();
+        assertThat(index.search("transfer", kind -> true, 0, 10).total()).isEqualTo(1);
+        assertThat(index.search("deposit", kind -> true, 0, 10).hits())
+                .extracting(SearchHit::kind).containsExactly(Kind.READING);
+
+        index.remove(Kind.TASK, "a");
+        index.remove(Kind.TASK, "missing");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("transfer", kind -> true, 0, 10).total()).isZero();
+        assertThat(index.search("bank", kind -> true, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void filtersByKindAndPages() {
+        for (int i = 0; i < 5; i++) {
+            index.put(Kind.TASK, "task-" + i, "Task " + i, "shared word " + "repeat ".repeat(i));
+            index.put(Kind.ENTRY, "entry-" + i, "Entry " + i, "shared word");
+        }
+
+        SearchIndex.Result tasks = index.search("shared", kind -> kind == Kind.TASK, 0, 2);
+        assertThat(tasks.total()).isEqualTo(5);
+        assertThat(tasks.hits()).hasSize(2).extracting(SearchHit::kind).containsOnly(Kind.TASK);
+
+        List<String> all = ids(index.search("shared", kind -> true, 0, 10));
+        List<String> pages = new ArrayList<>();
+        for (int offset = 0; offset < 10; offset += 3) {
+            pages.addAll(ids(index.search("shared", kind -> true, offset, 3)));
+        }
+        assertThat(pages).isEqualTo(all).hasSize(10);
+    }
+
+    @Test
+    void snippetIsAWindowAroundTheFirstMatch() {
+        String before = "lorem ipsum dolor sit amet ".repeat(20);
+        String after = " consectetur adipiscing elit sed do".repeat(20);
+        index.put(Kind.READING, "long", "Long", before + "invariant" + after);
+
+        String snippet = index.search("invariant", kind -> true, 0, 1).hits().get(0).snippet();
+
+        assertThat(snippet).startsWith("…").endsWith("…").contains("invariant");
+        String body = snippet.substring(1, snippet.length() - 1);
+        assertThat(body.length()).isLessThanOrEqualTo(60 + 140);
+        // Cut at word boundaries on both sides.
+        assertThat(body).doesNotStartWith(" ").doesNotEndWith(" ");
+        assertThat((before + "invariant" + after).contains(body)).isTrue();
+        assertThat(body.indexOf("invariant")).isLessThanOrEqualTo(60);
+    }
+
+    @Test
+    void snippetStartsAtTheTextWhenTheMatchIsNearIt() {
+        index.put(Kind.TASK, "start", "Start", "Invariant first,   then\n\nsome more text");
+        index.put(Kind.TASK, "none", "Title match only", "body text without it");
+
+        assertThat(index.search("invariant", kind -> true, 0, 1).hits().get(0).snippet())
+                .isEqualTo("Invariant first, then some more text");
+        assertThat(index.search("title", kind -> true, 0, 1).hits().get(0).snippet())
+                .isEqualTo("body text without it");
+    }
+
+    @Test
+    void ignoresShortWordsAndEmptyQueries() {
+        index.put(Kind.TASK, "t", "A b", "x y zz");
+
+        assertThat(SearchIndex.tokenize("A b, zz! Ünïcode 42")).containsExactly("zz", "ünïcode", "42");
+        assertThat(index.search("a b", kind -> true, 0, 10).total()).isZero();
+        assertThat(index.search("   ", kind -> true, 0, 10).hits()).isEmpty();
+        assertThat(index.search(null, kind -> true, 0, 10).hits()).isEmpty();
+    }
+
+    private static List<String> ids(SearchIndex.Result result) {
+        return ids(result.hits());
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+}
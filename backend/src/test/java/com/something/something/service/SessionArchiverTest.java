@@ -0,0 +1,74 @@
+package com.something.something.service;
+
+import com.something.something.model.Phase;
+import com.something.something.model.SessionDailyRollup;
+import com.something.something.model.UserSession;
+import com.something.something.repository.SessionDailyRollupRepository;
+import com.something.something.repository.UserSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionArchiverTest {
+
+    private static final Instant CREATED = Instant.parse("2020-01-01T10:00:00Z");
+    private static final LocalDate DAY = LocalDate.of(2020, 1, 1);
+
+    private final UserSessionRepository sessions = mock(UserSessionRepository.class);
+    private final SessionDailyRollupRepository rollups = mock(SessionDailyRollupRepository.class);
+    private final SessionArchiver archiver = new SessionArchiver(sessions, rollups,
+            new DefaultListableBeanFactory().getBeanProvider(WriteBehindSessionStore.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), Duration.ofDays(90), 10);
+
+    @Test
+    void addsToTheRowAnotherArchiverInsertedFirst() {
+        when(sessions.findArchivable(any(), any())).thenReturn(List.of(session(), session()));
+        // Missing at first; the insert then loses to another archiver's.
+        when(rollups.addCounts(DAY, Phase.HAZARD_WARNING, null, 2, 0, 0)).thenReturn(0, 1);
+        when(rollups.saveAndFlush(any(SessionDailyRollup.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_session_daily_rollups_key_not_quit"));
+
+        archiver.archive();
+
+        verify(rollups, times(2)).addCounts(DAY, Phase.HAZARD_WARNING, null, 2, 0, 0);
+        verify(rollups, times(1)).saveAndFlush(any());
+        verify(sessions, times(1)).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void givesUpAfterRepeatedConflicts() {
+        when(sessions.findArchivable(any(), any())).thenReturn(List.of(session()));
+        when(rollups.addCounts(any(), any(), any(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(0);
+        when(rollups.saveAndFlush(any(SessionDailyRollup.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_session_daily_rollups_key_not_quit"));
+
+        assertThatThrownBy(archiver::archive).isInstanceOf(DataIntegrityViolationException.class);
+        verify(rollups, times(3)).saveAndFlush(any());
+        verify(sessions, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    private static UserSession session() {
+        UserSession session = new UserSession(UUID.randomUUID());
+        session.setCreatedAt(CREATED);
+        return session;
+    }
+}
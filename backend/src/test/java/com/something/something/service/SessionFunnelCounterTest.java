@@ -0,0 +1,111 @@
+package com.something.something.service;
+
+import com.something.something.model.Phase;
+import com.something.something.model.SessionMetrics;
+import com.something.something.model.UserSession;
+import com.something.something.repository.PhaseFunnelCount;
+import com.something.something.service.SessionFunnelCounter.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionFunnelCounterTest {
+
+    private static final Position HAZARD = new Position(Phase.HAZARD_WARNING, null, false, false);
+    private static final Position FORK = new Position(Phase.FORK, null, true, false);
+
+    private record Row(Phase currentPhase, Phase quitPhase, long sessions, long reachedFork, long exited)
+            implements PhaseFunnelCount {
+
+        public Phase getCurrentPhase() { return currentPhase; }
+        public Phase getQuitPhase() { return quitPhase; }
+        public Long getSessions() { return sessions; }
+        public Long getReachedFork() { return reachedFork; }
+        public Long getExited() { return exited; }
+    }
+
+    @Test
+    void correctionKeepsUpdatesMadeWhileTheQueryRan() {
+        SessionFunnelCounter counter = new SessionFunnelCounter();
+        counter.recordCreated(new UserSession(UUID.randomUUID()));
+
+        SessionMetrics baseline = counter.capture();
+        // Recorded after the baseline, so missing from the rows below.
+        counter.recordCreated(new UserSession(UUID.randomUUID()));
+        counter.recordTransition(HAZARD, FORK);
+        // The table also holds two sessions this node never saw.
+        SessionMetrics actual = SessionFunnelCounter.summarize(List.of(
+                new Row(Phase.HAZARD_WARNING, null, 2, 0, 0),
+                new Row(Phase.EXITED, Phase.REVEAL, 1, 0, 1)));
+        counter.correct(baseline, actual);
+
+        SessionMetrics metrics = counter.snapshot();
+        assertThat(metrics.totalSessions()).isEqualTo(4);
+        assertThat(metrics.sessionsByPhase())
+                .containsEntry("HAZARD_WARNING", 2L)
+                .containsEntry("FORK", 1L)
+                .containsEntry("EXITED", 1L);
+        assertThat(metrics.quitDistribution()).containsExactlyEntriesOf(Map.of("REVEAL", 1L));
+        assertThat(metrics.completedToFork()).isEqualTo(1);
+        assertThat(metrics.totalExited()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentUpdatesSurviveRepeatedCorrections() throws InterruptedException {
+        SessionFunnelCounter counter = new SessionFunnelCounter();
+        int threads = 4;
+        int perThread = 20_000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    counter.recordCreated(new UserSession(UUID.randomUUID()));
+                    counter.recordTransition(HAZARD, FORK);
+                }
+            }));
+        }
+        // Pairs of corrections that cancel out: one adds a session the
+        // "table" has, the next removes it again.
+        int corrections = 0;
+        while (writers.stream().anyMatch(Thread::isAlive) || corrections == 0) {
+            SessionMetrics baseline = counter.capture();
+            counter.correct(baseline, withTotal(baseline, baseline.totalSessions() + 1));
+            baseline = counter.capture();
+            counter.correct(baseline, withTotal(baseline, baseline.totalSessions() - 1));
+            corrections++;
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        SessionMetrics metrics = counter.snapshot();
+        assertThat(metrics.totalSessions()).isEqualTo((long) threads * perThread);
+        assertThat(metrics.sessionsByPhase().get("FORK")).isEqualTo((long) threads * perThread);
+        assertThat(metrics.sessionsByPhase().get("HAZARD_WARNING")).isZero();
+        assertThat(metrics.completedToFork()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void summarizeMatchesWhatTheCounterWouldHold() {
+        SessionFunnelCounter counter = new SessionFunnelCounter();
+        counter.recordCreated(new UserSession(UUID.randomUUID()));
+        counter.recordCreated(new UserSession(UUID.randomUUID()));
+        counter.recordTransition(HAZARD, FORK);
+
+        SessionMetrics summarized = SessionFunnelCounter.summarize(List.of(
+                new Row(Phase.HAZARD_WARNING, null, 1, 0, 0),
+                new Row(Phase.FORK, null, 1, 1, 0)));
+
+        assertThat(summarized).isEqualTo(counter.snapshot());
+    }
+
+    private static SessionMetrics withTotal(SessionMetrics metrics, long total) {
+        return new SessionMetrics(total, metrics.sessionsByPhase(), metrics.quitDistribution(),
+                metrics.completedToFork(), metrics.totalExited());
+    }
+}
@@ -0,0 +1,128 @@
+package com.something.something.service;
+
+import com.something.something.model.Phase;
+import com.something.something.model.UserSession;
+import com.something.something.repository.UserSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionServiceTest {
+
+    private final UUID id = UUID.randomUUID();
+    private final UserSessionRepository repository = mock(UserSessionRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SessionService service;
+
+    // The stored row's phase, moved by advanceIfInPhase like the real UPDATE.
+    private Phase row = Phase.HAZARD_WARNING;
+    // Runs once, just before the next UPDATE: another request getting in first.
+    private Runnable beforeUpdate;
+
+    @BeforeEach
+    void setUp() {
+        service = new SessionService(repository, new SessionFunnelCounter(),
+                new DefaultListableBeanFactory().getBeanProvider(WriteBehindSessionStore.class), meterRegistry,
+                1000, Duration.ofHours(1), 1000, Duration.ofHours(1));
+        when(repository.findById(id)).thenAnswer(invocation -> {
+            UserSession session = new UserSession(id);
+            session.setCurrentPhase(row);
+            return Optional.of(session);
+        });
+        when(repository.advanceIfInPhase(eq(id), any(), any(), any())).thenAnswer(invocation -> {
+            if (beforeUpdate != null) {
+                Runnable other = beforeUpdate;
+                beforeUpdate = null;
+                other.run();
+            }
+            if (row != invocation.getArgument(1)) {
+                return 0;
+            }
+            row = invocation.getArgument(2);
+            return 1;
+        });
+    }
+
+    @Test
+    void advancesFromTheCachedCopyWithoutReading() {
+        service.getSession(id);
+
+        assertThat(service.advancePhase(id).getCurrentPhase()).isEqualTo(Phase.COMFORT_BAIT);
+        assertThat(service.advancePhase(id).getCurrentPhase()).isEqualTo(Phase.HIDDEN_FAILURE);
+
+        verify(repository, times(1)).findById(id);
+        assertThat(outcomes("success")).isEqualTo(2);
+    }
+
+    @Test
+    void retriesFromTheStoredPhaseWhenTheCachedCopyIsStale() {
+        service.getSession(id);
+        // Another instance advances the session.
+        row = Phase.COMFORT_BAIT;
+
+        UserSession session = service.advancePhase(id);
+
+        assertThat(session.getCurrentPhase()).isEqualTo(Phase.HIDDEN_FAILURE);
+        assertThat(row).isEqualTo(Phase.HIDDEN_FAILURE);
+        assertThat(outcomes("success")).isEqualTo(1);
+        assertThat(outcomes("conflict")).isZero();
+
+        // The cache holds the new state again.
+        service.advancePhase(id);
+        assertThat(row).isEqualTo(Phase.REVEAL);
+        verify(repository, times(2)).findById(id);
+    }
+
+    @Test
+    void aDoubleClickOnThisInstanceAdvancesOnce() {
+        service.getSession(id);
+        beforeUpdate = () -> service.advancePhase(id);
+
+        UserSession session = service.advancePhase(id);
+
+        assertThat(session.getCurrentPhase()).isEqualTo(Phase.COMFORT_BAIT);
+        assertThat(row).isEqualTo(Phase.COMFORT_BAIT);
+        assertThat(outcomes("success")).isEqualTo(1);
+        assertThat(outcomes("conflict")).isEqualTo(1);
+    }
+
+    @Test
+    void aConflictWithoutACachedCopyIsNotRetried() {
+        beforeUpdate = () -> row = Phase.COMFORT_BAIT;
+
+        UserSession session = service.advancePhase(id);
+
+        assertThat(session.getCurrentPhase()).isEqualTo(Phase.COMFORT_BAIT);
+        assertThat(row).isEqualTo(Phase.COMFORT_BAIT);
+        assertThat(outcomes("conflict")).isEqualTo(1);
+    }
+
+    @Test
+    void unknownSessionIsNotFound() {
+        UUID missing = UUID.randomUUID();
+        when(repository.findById(missing)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.advancePhase(missing)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(outcomes("not_found")).isEqualTo(1);
+    }
+
+    private long outcomes(String outcome) {
+        return meterRegistry.find("sessions.advance").tag("outcome", outcome).timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+}
@@ -0,0 +1,201 @@
+package com.something.something.service;
+
+import com.something.something.model.ContentField;
+import com.something.something.model.RevisionSummary;
+import com.something.something.model.SoupEntryRevision;
+import com.something.something.repository.SoupEntryRevisionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SoupEntryRevisionServiceTest {
+
+    private static final UUID ENTRY = UUID.randomUUID();
+    private static final ContentField FIELD = ContentField.ARTICLE_CONTENT;
+    private static final Instant EARLIER = Instant.parse("2025-12-01T00:00:00Z");
+    private static final Instant AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    // Revisions of one field, in the order they were saved.
+    private final List<SoupEntryRevision> rows = new ArrayList<>();
+
+    @Test
+    void rebuildsEveryRevisionOfRandomEdits() {
+        SoupEntryRevisionService service = service(16);
+        Random random = new Random(42);
+        List<String> history = new ArrayList<>();
+        String value = "";
+        history.add(value);
+        for (int i = 0; i < 300; i++) {
+            String next = randomEdit(value, random);
+            service.record(ENTRY, FIELD, value, EARLIER, next, AT);
+            value = next;
+            history.add(value);
+        }
+
+        for (int revision = 1; revision <= history.size(); revision++) {
+            assertThat(service.getRevision(ENTRY, FIELD, revision).content())
+                    .as("revision %d", revision)
+                    .isEqualTo(history.get(revision - 1));
+        }
+        assertThat(rows.stream().filter(r -> !r.isSnapshot())).isNotEmpty();
+    }
+
+    @Test
+    void splitsRepeatedTextBetweenPrefixAndSuffix() {
+        SoupEntryRevisionService service = service(16);
+        String[] values = { "aaaaaaaaaa", "aaaaaaaaaaaa", "aaaaaaaaa", "abababababab", "ababababab",
+                "abababab-ababab", "abababababababab" };
+        for (int i = 1; i < values.length; i++) {
+            service.record(ENTRY, FIELD, values[i - 1], EARLIER, values[i], AT);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(service.getRevision(ENTRY, FIELD, i + 1).content()).isEqualTo(values[i]);
+        }
+        assertThat(rows.get(1).isSnapshot()).isFalse();
+        assertThat(rows.get(1).getLength()).isEqualTo(12);
+    }
+
+    @Test
+    void neverSplitsASurrogatePair() {
+        SoupEntryRevisionService service = service(16);
+        // U+1F600 and U+1F601 share their high surrogate.
+        String before = "header 😀 footer text";
+        String after = "header 😁 footer text";
+        service.record(ENTRY, FIELD, before, EARLIER, after, AT);
+
+        SoupEntryRevision delta = rows.get(1);
+        assertThat(delta.isSnapshot()).isFalse();
+        assertThat(delta.applyTo(before)).isEqualTo(after);
+        assertThat(service.getRevision(ENTRY, FIELD, 2).content()).isEqualTo(after);
+        // The stored middle is the whole code point, not half of it.
+        assertThat(delta.getBody()).isEqualTo("😁");
+    }
+
+    @Test
+    void takesASnapshotEverySnapshotInterval() {
+        SoupEntryRevisionService service = service(4);
+        String value = "x".repeat(100);
+        for (int i = 0; i < 9; i++) {
+            String next = value.substring(0, 50) + i + value.substring(51);
+            service.record(ENTRY, FIELD, value, EARLIER, next, AT);
+            value = next;
+        }
+
+        assertThat(rows.stream().map(SoupEntryRevision::isSnapshot))
+                .containsExactly(true, false, false, false, true, false, false, false, true, false);
+        for (SoupEntryRevision row : rows) {
+            assertThat(row.getRevision() - row.getBaseRevision()).isLessThan(4);
+        }
+        assertThat(service.getRevision(ENTRY, FIELD, 10).content()).isEqualTo(value);
+    }
+
+    @Test
+    void fallsBackToASnapshotWhenThePreviousValueDoesNotMatchTheHead() {
+        SoupEntryRevisionService service = service(16);
+        service.record(ENTRY, FIELD, "first version", EARLIER, "first versioN", AT);
+        // The column was changed behind the service's back: 15 chars, head says 13.
+        service.record(ENTRY, FIELD, "edited directly", EARLIER, "edited directlY", AT);
+
+        assertThat(rows.get(2).isSnapshot()).isTrue();
+        assertThat(service.getRevision(ENTRY, FIELD, 3).content()).isEqualTo("edited directlY");
+        assertThat(service.getRevision(ENTRY, FIELD, 2).content()).isEqualTo("first versioN");
+    }
+
+    @Test
+    void handlesNullAndEmptyValues() {
+        SoupEntryRevisionService service = service(16);
+        service.record(ENTRY, FIELD, null, EARLIER, "text", AT);
+        service.record(ENTRY, FIELD, "text", EARLIER, null, AT);
+        service.record(ENTRY, FIELD, null, EARLIER, "", AT);
+        service.record(ENTRY, FIELD, "", EARLIER, "some longer text", AT);
+        service.record(ENTRY, FIELD, "some longer text", EARLIER, "", AT);
+
+        assertThat(rows).hasSize(5);
+        assertThat(rows.get(0).isSnapshot()).isTrue();
+        assertThat(rows.get(1).getLength()).isNull();
+        assertThat(rows.get(4).isSnapshot()).isFalse();
+        assertThat(service.getRevision(ENTRY, FIELD, 1).content()).isEqualTo("text");
+        assertThat(service.getRevision(ENTRY, FIELD, 2).content()).isNull();
+        assertThat(service.getRevision(ENTRY, FIELD, 3).content()).isEmpty();
+        assertThat(service.getRevision(ENTRY, FIELD, 4).content()).isEqualTo("some longer text");
+        assertThat(service.getRevision(ENTRY, FIELD, 5).content()).isEmpty();
+    }
+
+    @Test
+    void keepsThePreviousValueAsTheFirstRevision() {
+        SoupEntryRevisionService service = service(16);
+        service.record(ENTRY, FIELD, "written before history existed", EARLIER, "written after history existed", AT);
+
+        assertThat(rows).hasSize(2);
+        assertThat(service.getRevision(ENTRY, FIELD, 1).content()).isEqualTo("written before history existed");
+        assertThat(service.getRevision(ENTRY, FIELD, 2).content()).isEqualTo("written after history existed");
+        // Dated when it was written, not when it was replaced.
+        assertThat(service.getRevision(ENTRY, FIELD, 1).createdAt()).isEqualTo(EARLIER);
+        assertThat(service.getRevision(ENTRY, FIELD, 2).createdAt()).isEqualTo(AT);
+    }
+
+    private SoupEntryRevisionService service(int snapshotInterval) {
+        return new SoupEntryRevisionService(repository(), snapshotInterval);
+    }
+
+    // Stores rows in memory and answers the three queries the service uses
+    // the way the JPQL does, for a single entry and field.
+    private SoupEntryRevisionRepository repository() {
+        SoupEntryRevisionRepository repository = mock(SoupEntryRevisionRepository.class);
+        when(repository.save(any(SoupEntryRevision.class))).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findLatest(any(), any(), any())).thenAnswer(invocation ->
+                rows.isEmpty() ? List.of() : List.of(summary(rows.get(rows.size() - 1))));
+        when(repository.findChain(any(), any(), anyInt())).thenAnswer(invocation -> chain(invocation.getArgument(2)));
+        return repository;
+    }
+
+    private List<SoupEntryRevision> chain(int revision) {
+        SoupEntryRevision target = rows.stream().filter(r -> r.getRevision() == revision).findFirst().orElse(null);
+        if (target == null) {
+            return List.of();
+        }
+        return rows.stream()
+                .filter(r -> r.getRevision() >= target.getBaseRevision() && r.getRevision() <= revision)
+                .toList();
+    }
+
+    private static RevisionSummary summary(SoupEntryRevision r) {
+        return new RevisionSummary(r.getField(), r.getRevision(), r.getBaseRevision(), r.isSnapshot(), r.getLength(),
+                r.getCreatedAt());
+    }
+
+    // Inserts, deletes or replaces a short run, sometimes with repeated
+    // characters or a supplementary code point.
+    private static String randomEdit(String value, Random random) {
+        String[] pieces = { "a", "aa", "ab", "\n", " ", "lorem ipsum ", "😀", "é", "zzzz" };
+        StringBuilder insert = new StringBuilder();
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            insert.append(pieces[random.nextInt(pieces.length)]);
+        }
+        int at = value.isEmpty() ? 0 : value.offsetByCodePoints(0, random.nextInt(value.codePointCount(0, value.length()) + 1));
+        int cut = Math.min(value.length() - at, random.nextInt(6));
+        int end = at + cut;
+        if (end < value.length() && Character.isLowSurrogate(value.charAt(end))) {
+            end++;
+        }
+        return switch (random.nextInt(3)) {
+            case 0 -> value.substring(0, at) + insert + value.substring(at);
+            case 1 -> value.substring(0, at) + value.substring(end);
+            default -> value.substring(0, at) + insert + value.substring(end);
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.something.something.service;
+
+import com.something.something.model.Phase;
+import com.something.something.model.UserSession;
+import com.something.something.repository.UserSessionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindSessionStoreTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    // user_sessions: committed rows, and the rows handed out in the current
+    // flush, which the fake entity manager writes back like Hibernate would.
+    private final Map<UUID, UserSession> rows = new ConcurrentHashMap<>();
+    private final List<UserSession> managed = new ArrayList<>();
+    private final List<Integer> batchReads = new CopyOnWriteArrayList<>();
+    private volatile boolean databaseDown;
+
+    @Test
+    void flushesDirtySessionsInBatches() {
+        WriteBehindSessionStore store = store(100, 1000);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            ids.add(store.create(new UserSession(UUID.randomUUID())).getId());
+        }
+        assertThat(rows).isEmpty();
+
+        store.flush();
+
+        assertThat(batchReads).containsExactly(100, 100, 50);
+        assertThat(rows.keySet()).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(store.dirtyCount()).isZero();
+
+        // Nothing dirty, nothing read.
+        store.flush();
+        assertThat(batchReads).hasSize(3);
+    }
+
+    @Test
+    void appliesConcurrentChangesToOneSessionOneAtATime() throws InterruptedException {
+        WriteBehindSessionStore store = store(10, 1000);
+        UUID id = store.create(session(START)).getId();
+        int threads = 8;
+        int perThread = 500;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    // A read-modify-write that loses updates without the lock.
+                    store.update(id, s -> s.setCreatedAt(s.getCreatedAt().plusSeconds(1)));
+                }
+            }));
+        }
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (workers.stream().anyMatch(Thread::isAlive)) {
+                store.flush();
+            }
+        });
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        flusher.join();
+        store.flush();
+
+        Instant expected = START.plusSeconds((long) threads * perThread);
+        assertThat(store.get(id).getCreatedAt()).isEqualTo(expected);
+        assertThat(rows.get(id).getCreatedAt()).isEqualTo(expected);
+    }
+
+    @Test
+    void aSessionBusyInOneRequestDoesNotBlockOthers() throws InterruptedException {
+        WriteBehindSessionStore store = store(10, 1000);
+        UUID busy = store.create(session(START)).getId();
+        UUID other = store.create(session(START)).getId();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofPlatform().start(() -> store.update(busy, s -> {
+            inside.countDown();
+            await(release);
+        }));
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(store.update(other, s -> s.setCurrentPhase(Phase.COMFORT_BAIT)).getCurrentPhase())
+                .isEqualTo(Phase.COMFORT_BAIT);
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            store.update(busy, s -> s.setCurrentPhase(Phase.REVEAL));
+            blocked.countDown();
+        });
+        assertThat(blocked.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        holder.join();
+        waiter.join();
+        assertThat(store.get(busy).getCurrentPhase()).isEqualTo(Phase.REVEAL);
+    }
+
+    @Test
+    void carriesTheRowVersionAcrossFlushes() {
+        WriteBehindSessionStore store = store(10, 1000);
+        UUID id = UUID.randomUUID();
+        rows.put(id, stored(id, Phase.HAZARD_WARNING, 7));
+
+        store.update(id, s -> s.setCurrentPhase(Phase.COMFORT_BAIT));
+        store.flush();
+        assertThat(rows.get(id).getVersion()).isEqualTo(8);
+        assertThat(store.get(id).getVersion()).isEqualTo(8);
+
+        store.update(id, s -> s.setCurrentPhase(Phase.HIDDEN_FAILURE));
+        store.flush();
+        assertThat(rows.get(id).getCurrentPhase()).isEqualTo(Phase.HIDDEN_FAILURE);
+        assertThat(rows.get(id).getVersion()).isEqualTo(9);
+    }
+
+    @Test
+    void keepsARowChangedUnderneathAndResetsTheCache() {
+        WriteBehindSessionStore store = store(10, 1000);
+        UUID id = UUID.randomUUID();
+        rows.put(id, stored(id, Phase.HAZARD_WARNING, 3));
+
+        store.update(id, s -> s.setCurrentPhase(Phase.COMFORT_BAIT));
+        // Another writer moves the row on before the flush.
+        rows.put(id, stored(id, Phase.EXITED, 4));
+        store.flush();
+
+        assertThat(rows.get(id).getCurrentPhase()).isEqualTo(Phase.EXITED);
+        assertThat(rows.get(id).getVersion()).isEqualTo(4);
+        UserSession cached = store.get(id);
+        assertThat(cached.getCurrentPhase()).isEqualTo(Phase.EXITED);
+        assertThat(cached.getVersion()).isEqualTo(4);
+        assertThat(store.dirtyCount()).isZero();
+
+        // Later changes apply on top of the stored version.
+        store.update(id, s -> s.setQuitPhase(Phase.COMFORT_BAIT));
+        store.flush();
+        assertThat(rows.get(id).getQuitPhase()).isEqualTo(Phase.COMFORT_BAIT);
+        assertThat(rows.get(id).getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void refusesNewChangesWhileFullAndTheDatabaseIsDown() {
+        WriteBehindSessionStore store = store(10, 3);
+        databaseDown = true;
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(store.create(new UserSession(UUID.randomUUID())).getId());
+        }
+
+        assertThatThrownBy(() -> store.create(new UserSession(UUID.randomUUID())))
+                .isInstanceOf(TransientDataAccessResourceException.class);
+        assertThat(store.dirtyCount()).isEqualTo(3);
+        // A session already waiting can still change: it takes no more room.
+        store.update(ids.get(0), s -> s.setCurrentPhase(Phase.COMFORT_BAIT));
+
+        databaseDown = false;
+        store.flush();
+        assertThat(store.dirtyCount()).isZero();
+        assertThat(rows.get(ids.get(0)).getCurrentPhase()).isEqualTo(Phase.COMFORT_BAIT);
+        store.create(new UserSession(UUID.randomUUID()));
+    }
+
+    @Test
+    void flushesInlineWhenFullAndTheDatabaseIsUp() {
+        WriteBehindSessionStore store = store(10, 3);
+        for (int i = 0; i < 10; i++) {
+            store.create(new UserSession(UUID.randomUUID()));
+        }
+
+        assertThat(store.dirtyCount()).isLessThanOrEqualTo(3);
+        store.flush();
+        assertThat(rows).hasSize(10);
+    }
+
+    private WriteBehindSessionStore store(int batchSize, int maxDirty) {
+        UserSessionRepository repository = mock(UserSessionRepository.class);
+        when(repository.findById(any())).thenAnswer(invocation -> {
+            UserSession row = rows.get(invocation.<UUID>getArgument(0));
+            return Optional.ofNullable(row == null ? null : WriteBehindSessionStore.copyOf(row));
+        });
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            if (databaseDown) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            List<UserSession> found = new ArrayList<>();
+            int requested = 0;
+            for (UUID id : invocation.<Iterable<UUID>>getArgument(0)) {
+                requested++;
+                UserSession row = rows.get(id);
+                if (row != null) {
+                    found.add(WriteBehindSessionStore.copyOf(row));
+                }
+            }
+            batchReads.add(requested);
+            managed.addAll(found);
+            return found;
+        });
+        EntityManager entityManager = mock(EntityManager.class);
+        doAnswer(invocation -> managed.add(invocation.getArgument(0))).when(entityManager).persist(any());
+        doAnswer(invocation -> {
+            flushManaged();
+            return null;
+        }).when(entityManager).flush();
+        WriteBehindSessionStore store = new WriteBehindSessionStore(repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1000, maxDirty, batchSize);
+        ReflectionTestUtils.setField(store, "entityManager", entityManager);
+        return store;
+    }
+
+    // Inserts new rows, and writes changed ones with the version bumped.
+    private void flushManaged() {
+        for (UserSession session : managed) {
+            UserSession row = rows.get(session.getId());
+            if (row == null) {
+                rows.put(session.getId(), WriteBehindSessionStore.copyOf(session));
+            } else if (!sameState(row, session)) {
+                session.setVersion(row.getVersion() + 1);
+                rows.put(session.getId(), WriteBehindSessionStore.copyOf(session));
+            }
+        }
+        managed.clear();
+    }
+
+    private static boolean sameState(UserSession a, UserSession b) {
+        return a.getCurrentPhase() == b.getCurrentPhase() && a.getQuitPhase() == b.getQuitPhase()
+                && a.getCreatedAt().equals(b.getCreatedAt());
+    }
+
+    private static UserSession session(Instant createdAt) {
+        UserSession session = new UserSession(UUID.randomUUID());
+        session.setCreatedAt(createdAt);
+        return session;
+    }
+
+    private static UserSession stored(UUID id, Phase phase, long version) {
+        UserSession session = new UserSession(id);
+        session.setCreatedAt(START);
+        session.setCurrentPhase(phase);
+        session.setVersion(version);
+        return session;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -19,6 +19,22 @@ export interface SoupEntryData {
     publishedAt: string | null;
 }
 
+export interface BowlEntrySummary {
+    id: string;
+    slug: string;
+    title: string;
+    status: SoupEntryData['status'];
+    description: string | null;
+    createdAt: string;
+    updatedAt: string;
+    publishedAt: string | null;
+}
+
+export interface EntryPage<T> {
+    items: T[];
+    nextCursor: string | null;
+}
+
 export interface EntrySummary {
     slug: string;
     title: string;
@@ -42,6 +58,15 @@ export async function bowlListEntries(password: string): Promise<SoupEntryData[]
     return res.json();
 }
 
+// Newest first, summaries only; pass the previous page's nextCursor to continue.
+export async function bowlListEntryPage(password: string, cursor?: string | null): Promise<EntryPage<BowlEntrySummary>> {
+    const params = new URLSearchParams({ summary: 'true' });
+    if (cursor) params.set('cursor', cursor);
+    const res = await fetch(`${BASE}/entries/page?${params}`, { headers: headers(password) });
+    if (!res.ok) throw new Error(await res.text());
+    return res.json();
+}
+
 export async function bowlCreateEntry(password: string, title: string, slug: string, description: string): Promise<SoupEntryData> {
     const res = await fetch(`${BASE}/entries`, {
         method: 'POST',
@@ -66,12 +91,13 @@ export async function bowlDeleteEntry(password: string, id: string): Promise<voi
     if (!res.ok) throw new Error(await res.text());
 }
 
+// Phase saves are PATCHes: send only the fields that changed.
 export async function bowlUpdateExample(
     password: string, id: string,
-    data: { description: string; starterCode: string; testsCode: string; simulationCode: string }
+    data: Partial<{ description: string; starterCode: string; testsCode: string; simulationCode: string }>
 ): Promise<SoupEntryData> {
     const res = await fetch(`${BASE}/entries/${id}/example`, {
-        method: 'PUT',
+        method: 'PATCH',
         headers: headers(password),
         body: JSON.stringify(data),
     });
@@ -81,10 +107,10 @@ export async function bowlUpdateExample(
 
 export async function bowlUpdateExplanation(
     password: string, id: string,
-    data: { assumption: string; invariant: string; machineBehavior: string }
+    data: Partial<{ assumption: string; invariant: string; machineBehavior: string }>
 ): Promise<SoupEntryData> {
     const res = await fetch(`${BASE}/entries/${id}/explanation`, {
-        method: 'PUT',
+        method: 'PATCH',
         headers: headers(password),
         body: JSON.stringify(data),
     });
@@ -96,7 +122,7 @@ export async function bowlUpdateArticle(
     password: string, id: string, articleContent: string
 ): Promise<SoupEntryData> {
     const res = await fetch(`${BASE}/entries/${id}/article`, {
-        method: 'PUT',
+        method: 'PATCH',
         headers: headers(password),
         body: JSON.stringify({ articleContent }),
     });
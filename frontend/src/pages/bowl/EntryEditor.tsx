@@ -79,13 +79,25 @@ export default function EntryEditor() {
         return false;
     };
 
+    // Fields whose editor value differs from the last saved entry.
+    const changed = <K extends string>(pairs: [K, string, string | null][]): Partial<Record<K, string>> => {
+        const out: Partial<Record<K, string>> = {};
+        for (const [key, value, saved] of pairs) {
+            if (value !== (saved || '')) out[key] = value;
+        }
+        return out;
+    };
+
     const handleSaveExample = async () => {
         setSaving(true);
         setError('');
         try {
-            const updated = await bowlUpdateExample(password, id!, {
-                description, starterCode, testsCode, simulationCode,
-            });
+            const updated = await bowlUpdateExample(password, id!, changed([
+                ['description', description, entry!.exampleDescription],
+                ['starterCode', starterCode, entry!.exampleStarterCode],
+                ['testsCode', testsCode, entry!.exampleTestsCode],
+                ['simulationCode', simulationCode, entry!.exampleSimulationCode],
+            ]));
             setEntry(updated);
             flash('Example saved');
         } catch (e: unknown) {
@@ -98,9 +110,11 @@ export default function EntryEditor() {
         setSaving(true);
         setError('');
         try {
-            const updated = await bowlUpdateExplanation(password, id!, {
-                assumption, invariant, machineBehavior,
-            });
+            const updated = await bowlUpdateExplanation(password, id!, changed([
+                ['assumption', assumption, entry!.explanationAssumption],
+                ['invariant', invariant, entry!.explanationInvariant],
+                ['machineBehavior', machineBehavior, entry!.explanationMachineBehavior],
+            ]));
             setEntry(updated);
             flash('Explanation saved');
         } catch (e: unknown) {
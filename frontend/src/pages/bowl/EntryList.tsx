@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useBowl } from '../../context/BowlContext';
-import { bowlListEntries, bowlCreateEntry, bowlDeleteEntry, type SoupEntryData } from '../../api/bowlClient';
+import { bowlListEntryPage, bowlCreateEntry, bowlDeleteEntry, type BowlEntrySummary } from '../../api/bowlClient';
 
 const STATUS_LABELS: Record<string, string> = {
     DRAFT_EXAMPLE: '① Example',
@@ -20,7 +20,8 @@ const STATUS_COLORS: Record<string, string> = {
 export default function EntryList() {
     const { password, isAuthenticated } = useBowl();
     const navigate = useNavigate();
-    const [entries, setEntries] = useState<SoupEntryData[]>([]);
+    const [entries, setEntries] = useState<BowlEntrySummary[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [error, setError] = useState('');
     const [showCreate, setShowCreate] = useState(false);
     const [newTitle, setNewTitle] = useState('');
@@ -38,8 +39,19 @@ export default function EntryList() {
 
     const loadEntries = async () => {
         try {
-            const data = await bowlListEntries(password);
-            setEntries(data);
+            const page = await bowlListEntryPage(password);
+            setEntries(page.items);
+            setNextCursor(page.nextCursor);
+        } catch (e: unknown) {
+            setError(e instanceof Error ? e.message : String(e));
+        }
+    };
+
+    const loadMore = async () => {
+        try {
+            const page = await bowlListEntryPage(password, nextCursor);
+            setEntries(prev => [...prev, ...page.items]);
+            setNextCursor(page.nextCursor);
         } catch (e: unknown) {
             setError(e instanceof Error ? e.message : String(e));
         }
@@ -160,6 +172,12 @@ export default function EntryList() {
                         </div>
                     ))}
                 </div>
+
+                {nextCursor && (
+                    <button className="btn btn-ghost" style={{ marginTop: '1rem' }} onClick={loadMore}>
+                        Load more
+                    </button>
+                )}
             </div>
         </div>
     );